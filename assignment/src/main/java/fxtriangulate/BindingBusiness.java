@@ -1,22 +1,38 @@
 package fxtriangulate;
 
-import java.util.Arrays;
+import fxtriangulate.geometry.Geometry;
+import fxtriangulate.metrics.Counter;
+import fxtriangulate.metrics.Metrics;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Point2D;
 import javafx.scene.control.Label;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Line;
 
 /**
+ * Wires the triangle nodes together with bindings. The actual computations are
+ * delegated to the JavaFX free kernels in {@link Geometry}.
  *
  * @author Pieter van den Hombergh / Richard van den Ham
  */
 class BindingBusiness {
 
+    /**
+     * Number of binding computations, see {@link Metrics}.
+     */
+    static final Counter LENGTH_COMPUTED = Metrics.counter("binding.length");
+    static final Counter AREA_COMPUTED = Metrics.counter("binding.area");
+    static final Counter MIDPOINT_COMPUTED = Metrics.counter("binding.midpoint");
+
     // Fields
     /**
      * Circles that represent corners of triangle.
@@ -35,11 +51,25 @@ class BindingBusiness {
     private DoubleBinding area = null;
 
     /**
-     * Mapping between Line objects and their length binding. Avoids the
-     * creation of (unnecessary) line length bindings at multiple places.
+     * Mapping between Line objects and their length binding, for lines that
+     * are not connected to circles. Avoids the creation of (unnecessary) line
+     * length bindings at multiple places.
      */
     private final Map<Line, DoubleBinding> lengthBindings = new HashMap<>();
 
+    /**
+     * The circles a line was connected to.
+     */
+    private final Map<Line, Circle[]> lineEnds = new HashMap<>();
+
+    /**
+     * One length binding per pair of circles, shared by the lines, their
+     * labels and the area. It follows the centers as points, so a move
+     * invalidates it once instead of once per coordinate.
+     */
+    final EdgeCache<Circle> edges = new EdgeCache<>((a, b) -> lengthBinding(
+            PointProperty.of(a), PointProperty.of(b)));
+
     /**
      * An active line is a line that is 'selected'. The use case is that you can
      * determine the sum of all active lines. If you'd like to calculate the
@@ -82,6 +112,7 @@ class BindingBusiness {
      */
     final void connect(Line line, Circle c1, Circle c2) {
         lines.put(line.getId(), line);
+        lineEnds.put(line, new Circle[]{c1, c2});
 
         line.startXProperty().bind(c1.centerXProperty());
         line.startYProperty().bind(c1.centerYProperty());
@@ -123,8 +154,8 @@ class BindingBusiness {
      * @param lineCenterY to bind label Y position to
      */
     Label centerLabelVertically(Label label, DoubleBinding lineCenterY) {
-        label.layoutYProperty().bind(lineCenterY.subtract(label.
-                heightProperty().divide(2)));
+        label.layoutYProperty().bind(centeredBinding(lineCenterY, label.
+                heightProperty()));
         return label;
     }
 
@@ -137,30 +168,159 @@ class BindingBusiness {
      * @param lineCenterX to bind
      */
     Label centerLabelHorizontally(Label label, DoubleBinding lineCenterX) {
-        label.layoutXProperty().bind(lineCenterX.subtract(label.
-                widthProperty().divide(2)));
+        label.layoutXProperty().bind(centeredBinding(lineCenterX, label.
+                widthProperty()));
         return label;
     }
 
     /**
-     * Create a binding to compute the area with a triangle determined by side
-     * lengths a, b and c. This method consults the cache (the field
+     * Position of something of the given size, centered around a value. One
+     * binding, where subtract and divide would make two.
+     *
+     * @param center to center around
+     * @param size width or height
+     * @return the position of the left or top side
+     */
+    DoubleBinding centeredBinding(ObservableDoubleValue center,
+            ObservableDoubleValue size) {
+
+        return new DoubleBinding() {
+            {
+                bind(center, size);
+            }
+
+            @Override
+            protected double computeValue() {
+                return center.get() - size.get() / 2;
+            }
+
+            @Override
+            public void dispose() {
+                unbind(center, size);
+            }
+        };
+    }
+
+    /**
+     * Position of something of the given size, centered around the middle of
+     * two values, like the center of a line. A single binding does the work
+     * of a midpoint, a divide and a subtract binding.
+     *
+     * @param a start value
+     * @param b end value
+     * @param size width or height
+     * @return the position of the left or top side
+     */
+    DoubleBinding centeredBinding(ObservableDoubleValue a,
+            ObservableDoubleValue b, ObservableDoubleValue size) {
+
+        return new DoubleBinding() {
+            {
+                bind(a, b, size);
+            }
+
+            @Override
+            protected double computeValue() {
+                return Geometry.mean(a.get(), b.get()) - size.get() / 2;
+            }
+
+            @Override
+            public void dispose() {
+                unbind(a, b, size);
+            }
+        };
+    }
+
+    /**
+     * Bind the position of a label only while it is visible. The bindings are
+     * made when the label shows and disposed of when it is hidden, so hidden
+     * labels do not keep bindings that nobody looks at.
+     *
+     * @param label to position
+     * @param layoutX makes the binding for the x position
+     * @param layoutY makes the binding for the y position
+     */
+    void bindWhileVisible(Label label, Supplier<DoubleBinding> layoutX,
+            Supplier<DoubleBinding> layoutY) {
+
+        DoubleBinding[] bound = new DoubleBinding[2];
+        InvalidationListener visibility = o -> {
+            if (label.isVisible() && bound[0] == null) {
+                bound[0] = layoutX.get();
+                bound[1] = layoutY.get();
+                label.layoutXProperty().bind(bound[0]);
+                label.layoutYProperty().bind(bound[1]);
+            } else if (!label.isVisible() && bound[0] != null) {
+                label.layoutXProperty().unbind();
+                label.layoutYProperty().unbind();
+                bound[0].dispose();
+                bound[1].dispose();
+                bound[0] = null;
+                bound[1] = null;
+            }
+        };
+        label.visibleProperty().addListener(visibility);
+        visibility.invalidated(label.visibleProperty());
+    }
+
+    /**
+     * Create a binding to compute the area of the triangle of the three corner
+     * circles, from their centers. This method consults the cache (the field
      * areaBinding) and computes the value if necessary.
      *
      * @return the area value as DoubleBinding
      */
     final DoubleBinding areaBinding() {
         if (area == null) {
-            area = areaBinding(lengthBinding(redCircle, greenCircle),
-                    lengthBinding(greenCircle, blueCircle),
-                    lengthBinding(blueCircle, redCircle));
+            area = areaBinding(PointProperty.of(redCircle),
+                    PointProperty.of(greenCircle),
+                    PointProperty.of(blueCircle));
         }
         return area;
     }
 
     /**
-     * Create the area binding using herons formula. Have a look at Herons
-     * formula at the website referenced here:
+     * Create the area binding of a triangle from its corners, with the cross
+     * product of two sides. No square roots and no cancellation for thin
+     * triangles, unlike Herons formula on the side lengths.
+     *
+     * @param a first corner
+     * @param b second corner
+     * @param c third corner
+     *
+     * @return the area value as DoubleBinding
+     */
+    final DoubleBinding areaBinding(ObservableValue<Point2D> a,
+            ObservableValue<Point2D> b, ObservableValue<Point2D> c) {
+
+        DoubleBinding areaBinding = new DoubleBinding() {
+            {
+                bind(a, b, c);
+            }
+
+            @Override
+            protected double computeValue() {
+                AREA_COMPUTED.increment();
+                Point2D p = a.getValue();
+                Point2D q = b.getValue();
+                Point2D r = c.getValue();
+                return Geometry.triangleArea(p.getX(), p.getY(), q.getX(),
+                        q.getY(), r.getX(), r.getY());
+            }
+
+            @Override
+            public void dispose() {
+                unbind(a, b, c);
+            }
+        };
+
+        return areaBinding;
+    }
+
+    /**
+     * Create the area binding using herons formula, for when only the side
+     * lengths are known. Have a look at Herons formula at the website
+     * referenced here:
      *
      * @see https://en.wikipedia.org/wiki/Triangle
      *
@@ -181,8 +341,13 @@ class BindingBusiness {
             @Override
             protected double computeValue() {
                 //TODO 2 Implement method based on lengthA, lengthB and lengthC
-                double semiPerimeter = (lengthA.get() + lengthB.get() + lengthC.get()) / 2;
-                return Math.sqrt(semiPerimeter * (semiPerimeter - lengthA.get()) * (semiPerimeter - lengthB.get()) * (semiPerimeter - lengthC.get()));
+                AREA_COMPUTED.increment();
+                return Geometry.heronArea(lengthA.get(), lengthB.get(), lengthC.get());
+            }
+
+            @Override
+            public void dispose() {
+                unbind(lengthA, lengthB, lengthC);
             }
         };
 
@@ -222,16 +387,22 @@ class BindingBusiness {
     }
 
     /**
-     * Create a binding for the length of a line. The method does a lookup of an
-     * existing length binding in the lengthBindings map (cache). If there is no
-     * binding found, it is created and added to the cache. The creation is
-     * delegated to the method lengthBinding(startX, startY, endX, endY)
+     * Create a binding for the length of a line. A line that connects two
+     * circles has the length of the edge between them, from the edge cache.
+     * For other lines the method does a lookup of an existing length binding
+     * in the lengthBindings map (cache). If there is no binding found, it is
+     * created and added to the cache. The creation is delegated to the method
+     * lengthBinding(startX, startY, endX, endY)
      *
      * @param line
      *
      * @return a double binding that computes the line length.
      */
     DoubleBinding lengthBinding(Line line) {
+        Circle[] ends = lineEnds.get(line);
+        if (ends != null) {
+            return lengthBinding(ends[0], ends[1]);
+        }
         return lengthBindings
                 .computeIfAbsent(line,
                         l -> lengthBinding(
@@ -285,8 +456,8 @@ class BindingBusiness {
 
             @Override
             protected double computeValue() {
-                return Math.sqrt((startX.get() - endX.get()) * (startX.get() - endX.get())
-                        + (startY.get() - endY.get()) * (startY.get() - endY.get()));
+                LENGTH_COMPUTED.increment();
+                return Geometry.distance(startX.get(), startY.get(), endX.get(), endY.get());
             }
         };
 
@@ -294,18 +465,147 @@ class BindingBusiness {
     }
 
     /**
-     * Convenience method to create a lengthBinding between two circles. The
-     * actual work is delegated to the method lengthBinding(startX, startY,
-     * endX, endY). The center properties of the circles are simply passed as
-     * parameter.
+     * Convenience method to get the lengthBinding between two circles, in
+     * either order, from the edge cache. The actual work is delegated to the
+     * method lengthBinding(startX, startY, endX, endY), with the center
+     * properties of the circles as start and end.
      *
      * @param a circle that represents start coordinate
      * @param b circle that represents end coordinate
      * @return DoubleBinding representing the length between both coordinates.
      */
     DoubleBinding lengthBinding(Circle a, Circle b) {
-        return lengthBinding(a.centerXProperty(), b.centerXProperty(), a
-                .centerYProperty(), b.centerYProperty());
+        return edges.lengthBinding(a, b);
+    }
+
+    /**
+     * Create a lengthBinding between two points. A point that moves
+     * invalidates the binding once, where the overload on coordinates is
+     * invalidated for x and y separately.
+     *
+     * @param a start point
+     * @param b end point
+     * @return DoubleBinding representing the distance between the points.
+     */
+    DoubleBinding lengthBinding(ObservableValue<Point2D> a,
+            ObservableValue<Point2D> b) {
+
+        DoubleBinding lengthBinding = new DoubleBinding() {
+            {
+                bind(a, b);
+            }
+
+            @Override
+            protected double computeValue() {
+                LENGTH_COMPUTED.increment();
+                Point2D p = a.getValue();
+                Point2D q = b.getValue();
+                return Geometry.distance(p.getX(), p.getY(), q.getX(), q.getY());
+            }
+
+            @Override
+            public void dispose() {
+                unbind(a, b);
+            }
+        };
+
+        return lengthBinding;
+    }
+
+    /**
+     * Creates binding that computes the average of the given points, like
+     * {@link #midpointBinding(DoubleProperty...)} does for coordinates. A
+     * moving point invalidates it once.
+     *
+     * @param points to average
+     *
+     * @return the average point
+     */
+    @SafeVarargs
+    final ObjectBinding<Point2D> midpointBinding(
+            final ObservableValue<Point2D>... points) {
+
+        ObjectBinding<Point2D> midPointBinding = new ObjectBinding<Point2D>() {
+
+            {
+                bind(points);
+            }
+
+            @Override
+            protected Point2D computeValue() {
+                MIDPOINT_COMPUTED.increment();
+                double x = 0.0;
+                double y = 0.0;
+                for (ObservableValue<Point2D> p : points) {
+                    x += p.getValue().getX();
+                    y += p.getValue().getY();
+                }
+                return new Point2D(x / points.length, y / points.length);
+            }
+        };
+
+        return midPointBinding;
+    }
+
+    /**
+     * Creates binding that computes the average of two values, without the
+     * array and stream of the general overload.
+     *
+     * @param a value
+     * @param b value
+     *
+     * @return the average value
+     */
+    DoubleBinding midpointBinding(final ObservableDoubleValue a,
+            final ObservableDoubleValue b) {
+
+        return new DoubleBinding() {
+            {
+                bind(a, b);
+            }
+
+            @Override
+            protected double computeValue() {
+                MIDPOINT_COMPUTED.increment();
+                return Geometry.mean(a.get(), b.get());
+            }
+
+            @Override
+            public void dispose() {
+                unbind(a, b);
+            }
+        };
+    }
+
+    /**
+     * Creates binding that computes the average of three values, for instance
+     * the center of gravity of a triangle.
+     *
+     * @param a value
+     * @param b value
+     * @param c value
+     *
+     * @return the average value
+     */
+    DoubleBinding midpointBinding(final ObservableDoubleValue a,
+            final ObservableDoubleValue b, final ObservableDoubleValue c) {
+
+        return new DoubleBinding() {
+            {
+                bind(a, b, c);
+            }
+
+            @Override
+            protected double computeValue() {
+                MIDPOINT_COMPUTED.increment();
+                return Geometry.mean(a.get(), b.get(), c.get());
+            }
+
+            @Override
+            public void dispose() {
+                unbind(a, b, c);
+            }
+        };
     }
 
     /**
@@ -336,8 +636,12 @@ class BindingBusiness {
 
             @Override
             protected double computeValue() {
-                return Arrays.stream(doubleProperties).mapToDouble(
-                        DoubleProperty::doubleValue).average().getAsDouble();
+                MIDPOINT_COMPUTED.increment();
+                double sum = 0.0;
+                for (DoubleProperty p : doubleProperties) {
+                    sum += p.get();
+                }
+                return sum / doubleProperties.length;
             }
 
         };
@@ -348,18 +652,22 @@ class BindingBusiness {
     /**
      * Sets up the label belonging to a line. Makes the position of the label
      * dependent on the position of the line and makes the content of the label
-     * displaying the lenth of the line.
+     * displaying the lenth of the line. The position is only bound while the
+     * label is visible.
      *
      * @param line
      * @param label
      */
     void connectLabelToLine(Line line, Label label) {
 
-        centerLabelHorizontally(label, lineCenterX(line));
-        centerLabelVertically(label, lineCenterY(line));
+        bindWhileVisible(label,
+                () -> centeredBinding(line.startXProperty(), line.endXProperty(),
+                        label.widthProperty()),
+                () -> centeredBinding(line.startYProperty(), line.endYProperty(),
+                        label.heightProperty()));
 
-        label.textProperty().bind(lengthBinding(line).asString(label
-                .getText() + ":%6.2f"));
+        label.textProperty().bind(FixedDecimalBinding.of(lengthBinding(line),
+                label.getText() + ":"));
     }
 
     /**
@@ -371,18 +679,16 @@ class BindingBusiness {
      */
     void connectLabelToCenterOfGravityCircle(Circle cogCircle, Label cogLabel) {
 
-        DoubleBinding cogXBinding
-                = midpointBinding(
-                        redCircle.centerXProperty(),
-                        greenCircle.centerXProperty(),
-                        blueCircle.centerXProperty()
-                );
-        DoubleBinding cogYBinding
+        ObjectBinding<Point2D> cogBinding
                 = midpointBinding(
-                        redCircle.centerYProperty(),
-                        greenCircle.centerYProperty(), blueCircle
-                        .centerYProperty()
+                        PointProperty.of(redCircle),
+                        PointProperty.of(greenCircle),
+                        PointProperty.of(blueCircle)
                 );
+        DoubleBinding cogXBinding = Bindings.createDoubleBinding(
+                () -> cogBinding.get().getX(), cogBinding);
+        DoubleBinding cogYBinding = Bindings.createDoubleBinding(
+                () -> cogBinding.get().getY(), cogBinding);
         
         cogCircle.centerXProperty().bind(cogXBinding);
         cogCircle.centerYProperty().bind(cogYBinding.add(10.0));
@@ -391,6 +697,6 @@ class BindingBusiness {
         centerLabelVertically(cogLabel, cogYBinding);
 
         cogLabel.textProperty()
-                .bind(areaBinding().asString("Area: %6.2f"));
+                .bind(FixedDecimalBinding.of(areaBinding(), "Area: "));
     }
 }
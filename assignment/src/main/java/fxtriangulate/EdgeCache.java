@@ -0,0 +1,116 @@
+package fxtriangulate;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import javafx.beans.binding.DoubleBinding;
+
+/**
+ * One length binding per edge, where an edge is an unordered pair of vertices.
+ * Asking for the edge from a to b gives the same binding as asking for the
+ * edge from b to a, so everybody that needs the length of an edge shares it
+ * and it is computed once per move.
+ *
+ * The cache holds its bindings weakly: a binding that nobody uses any more is
+ * collected, and its entry is dropped the next time the cache is used.
+ * Vertices are compared by identity.
+ *
+ * @param <V> vertex type
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class EdgeCache<V> {
+
+    private final BiFunction<V, V, DoubleBinding> factory;
+    private final Map<Edge, EdgeReference> edges = new HashMap<>();
+    private final ReferenceQueue<DoubleBinding> collected = new ReferenceQueue<>();
+
+    /**
+     * Create a cache.
+     *
+     * @param factory makes the length binding between two vertices
+     */
+    EdgeCache( BiFunction<V, V, DoubleBinding> factory ) {
+        this.factory = factory;
+    }
+
+    /**
+     * The length of the edge between two vertices, in either order. Made on
+     * first use.
+     *
+     * @param a vertex
+     * @param b vertex
+     * @return the shared length binding
+     */
+    DoubleBinding lengthBinding( V a, V b ) {
+        purge();
+        Edge edge = new Edge( a, b );
+        EdgeReference ref = edges.get( edge );
+        DoubleBinding length = ref == null ? null : ref.get();
+        if ( length == null ) {
+            length = factory.apply( a, b );
+            edges.put( edge, new EdgeReference( edge, length, collected ) );
+        }
+        return length;
+    }
+
+    /**
+     * @return the number of edges with a live binding, as far as known
+     */
+    int size() {
+        purge();
+        return edges.size();
+    }
+
+    /**
+     * Drop the entries of collected bindings.
+     */
+    private void purge() {
+        for ( Object ref; ( ref = collected.poll() ) != null; ) {
+            EdgeReference e = (EdgeReference) ref;
+            edges.remove( e.edge, e );
+        }
+    }
+
+    /**
+     * Unordered pair of vertices.
+     */
+    private static final class Edge {
+
+        final Object a, b;
+
+        Edge( Object a, Object b ) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( !( o instanceof Edge ) ) {
+                return false;
+            }
+            Edge e = (Edge) o;
+            return a == e.a && b == e.b || a == e.b && b == e.a;
+        }
+
+        @Override
+        public int hashCode() {
+            int ha = System.identityHashCode( a );
+            int hb = System.identityHashCode( b );
+            return 31 * Math.min( ha, hb ) + Math.max( ha, hb );
+        }
+    }
+
+    private static final class EdgeReference extends WeakReference<DoubleBinding> {
+
+        final Edge edge;
+
+        EdgeReference( Edge edge, DoubleBinding length,
+                ReferenceQueue<DoubleBinding> queue ) {
+            super( length, queue );
+            this.edge = edge;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package fxtriangulate;
+
+import fxtriangulate.metrics.Counter;
+import fxtriangulate.metrics.Metrics;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.value.ObservableNumberValue;
+
+/**
+ * Number as text with a fixed number of decimals, like
+ * {@code asString( prefix + "%6.2f" )}, but cheaper.
+ *
+ * The text is written into a reused StringBuilder instead of going through
+ * String.format, which creates a Formatter and parses the pattern for every
+ * value. And the binding only becomes invalid when the text would change: a
+ * source change that rounds to the same text does not reach the label at all.
+ *
+ * The text is the same as String.format gives in the default format locale.
+ * Values that are too large for exact arithmetic on longs, NaN, infinities
+ * and values that lie on a rounding tie are left to String.format.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class FixedDecimalBinding extends StringBinding {
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+        100_000_000L, 1_000_000_000L
+    };
+
+    /**
+     * Largest scaled value that is formatted without String.format.
+     */
+    private static final double MAX_SCALED = 1e15;
+
+    /**
+     * Key of a value that has no fast path.
+     */
+    private static final long NO_KEY = Long.MIN_VALUE;
+
+    /**
+     * Texts made, and source changes that left the text as it was.
+     */
+    static final Counter FORMATTED = Metrics.counter( "label.format" );
+    static final Counter SKIPPED = Metrics.counter( "label.skip" );
+
+    private final ObservableNumberValue source;
+    private final String prefix;
+    private final int width;
+    private final int decimals;
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final boolean asciiDigits;
+
+    private final StringBuilder text = new StringBuilder( 24 );
+
+    /**
+     * Key and value of the text last computed.
+     */
+    private long shownKey = NO_KEY;
+    private long shownBits;
+
+    private final InvalidationListener sourceListener = o -> sourceChanged();
+
+    /**
+     * The listener the source holds, kept to remove it again on dispose.
+     */
+    private final WeakInvalidationListener weakSourceListener
+            = new WeakInvalidationListener( sourceListener );
+
+    /**
+     * Create the binding.
+     *
+     * @param source   the number to show
+     * @param prefix   text before the number
+     * @param width    minimum width of the number, padded with spaces on the
+     *                 left
+     * @param decimals number of decimals, 0 to 9
+     */
+    public FixedDecimalBinding( ObservableNumberValue source, String prefix,
+            int width, int decimals ) {
+        if ( decimals < 0 || decimals >= POW10.length ) {
+            throw new IllegalArgumentException( "decimals " + decimals );
+        }
+        this.source = source;
+        this.prefix = prefix;
+        this.width = width;
+        this.decimals = decimals;
+        this.locale = Locale.getDefault( Locale.Category.FORMAT );
+        DecimalFormatSymbols symbols = symbols( locale );
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.asciiDigits = symbols.getZeroDigit() == '0';
+        source.addListener( weakSourceListener );
+    }
+
+    /**
+     * The number with two decimals in six positions, as "%6.2f" shows it.
+     *
+     * @param source the number to show
+     * @param prefix text before the number
+     * @return the binding
+     */
+    public static FixedDecimalBinding of( ObservableNumberValue source, String prefix ) {
+        return new FixedDecimalBinding( source, prefix, 6, 2 );
+    }
+
+    /**
+     * Invalidate only if the source now rounds to a different text.
+     */
+    private void sourceChanged() {
+        if ( !isValid() ) {
+            return;
+        }
+        double value = source.doubleValue();
+        long key = key( value );
+        if ( key != shownKey
+                || key == NO_KEY && Double.doubleToRawLongBits( value ) != shownBits ) {
+            invalidate();
+        } else {
+            SKIPPED.increment();
+        }
+    }
+
+    @Override
+    protected String computeValue() {
+        FORMATTED.increment();
+        double value = source.doubleValue();
+        long key = key( value );
+        shownKey = key;
+        shownBits = Double.doubleToRawLongBits( value );
+        text.setLength( 0 );
+        text.append( prefix );
+        if ( key == NO_KEY ) {
+            text.append( String.format( locale, "%" + ( width > 0 ? width : "" )
+                    + "." + decimals + "f", value ) );
+        } else {
+            appendFixed( key, width, decimals, decimalSeparator, text );
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void dispose() {
+        source.removeListener( weakSourceListener );
+    }
+
+    /**
+     * The rounded value scaled by 10^decimals, shifted left once with the sign
+     * in the lowest bit, so -0.00 and 0.00 differ. NO_KEY if the value needs
+     * String.format.
+     */
+    long key( double value ) {
+        if ( !asciiDigits ) {
+            return NO_KEY;
+        }
+        return key( value, decimals );
+    }
+
+    static long key( double value, int decimals ) {
+        double scaled = Math.abs( value ) * POW10[ decimals ];
+        if ( !( scaled < MAX_SCALED ) ) {
+            return NO_KEY; // also NaN
+        }
+        double floor = Math.floor( scaled );
+        double fraction = scaled - floor;
+        // String.format rounds the shortest decimal form of the value half
+        // up; near a tie that form may round differently than the binary
+        // value does
+        if ( Math.abs( fraction - 0.5 ) <= 2 * Math.ulp( scaled ) ) {
+            return NO_KEY;
+        }
+        long rounded = (long) floor + ( fraction > 0.5 ? 1 : 0 );
+        long sign = Double.doubleToRawLongBits( value ) < 0 ? 1 : 0;
+        return rounded << 1 | sign;
+    }
+
+    /**
+     * Write a key as fixed point number.
+     */
+    static void appendFixed( long key, int width, int decimals, char separator,
+            StringBuilder out ) {
+        boolean negative = ( key & 1 ) != 0;
+        long rounded = key >>> 1;
+        long integer = rounded / POW10[ decimals ];
+        long fraction = rounded % POW10[ decimals ];
+
+        int integerDigits = 1;
+        for ( long rest = integer; rest >= 10; rest /= 10 ) {
+            integerDigits++;
+        }
+        int length = ( negative ? 1 : 0 ) + integerDigits
+                + ( decimals > 0 ? 1 + decimals : 0 );
+        for ( int i = length; i < width; i++ ) {
+            out.append( ' ' );
+        }
+        if ( negative ) {
+            out.append( '-' );
+        }
+        out.append( integer );
+        if ( decimals > 0 ) {
+            out.append( separator );
+            for ( int d = decimals - 1; d >= 0; d-- ) {
+                out.append( (char) ( '0' + fraction / POW10[ d ] % 10 ) );
+            }
+        }
+    }
+
+    /**
+     * Format a number with the given decimals, without padding, the way
+     * {@code String.format( "%.2f", value )} does for two decimals.
+     *
+     * @param value    to format
+     * @param decimals number of decimals, 0 to 9
+     * @return the text
+     */
+    public static String format( double value, int decimals ) {
+        Locale locale = Locale.getDefault( Locale.Category.FORMAT );
+        DecimalFormatSymbols symbols = symbols( locale );
+        long key = symbols.getZeroDigit() == '0' ? key( value, decimals ) : NO_KEY;
+        if ( key == NO_KEY ) {
+            return String.format( locale, "%." + decimals + "f", value );
+        }
+        StringBuilder out = new StringBuilder( 24 );
+        appendFixed( key, 0, decimals, symbols.getDecimalSeparator(), out );
+        return out.toString();
+    }
+
+    /**
+     * Symbols of the last locale asked for, with that locale.
+     */
+    private static volatile Object[] lastSymbols = { null, null };
+
+    private static DecimalFormatSymbols symbols( Locale locale ) {
+        Object[] last = lastSymbols;
+        if ( !locale.equals( last[ 0 ] ) ) {
+            last = new Object[]{ locale, DecimalFormatSymbols.getInstance( locale ) };
+            lastSymbols = last;
+        }
+        return (DecimalFormatSymbols) last[ 1 ];
+    }
+}
@@ -0,0 +1,296 @@
+package fxtriangulate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SnapIndex backed by a uniform grid. The bounding box of the targets is
+ * divided into roughly as many square cells as there are targets, so a cell
+ * holds a couple of targets on average. Nearest queries visit the cells in
+ * rings around the query cell and stop as soon as no unvisited cell can hold a
+ * nearer target. Range queries only visit the cells overlapping the range.
+ *
+ * The cells are stored in compressed form: cellStart[c] is the offset in
+ * cellItems of the first target of cell c, cellStart[c+1] the end. A target
+ * that moves on its own after the build leaves its cell there and goes to a
+ * linked list of the cell it moved to, until so many targets have moved that
+ * the grid is built again.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class GridSnapIndex implements SnapIndex {
+
+    private SnapTarget[] items = new SnapTarget[ 0 ];
+
+    /**
+     * Coordinates and range radius of the items, captured at build time.
+     */
+    private double[] xs, ys, radii;
+
+    /**
+     * Offset of all items since the build.
+     */
+    private double offsetX, offsetY;
+
+    private double minX, minY, cellSize;
+    private int cols, rows;
+    private int[] cellStart, cellItems;
+    private double maxRadius;
+
+    /**
+     * Targets moved since the build: movedCell[i] is the cell of item i, or -1
+     * while the item is still in its cell of the build. movedHead[c] is the
+     * first moved item in cell c, movedNext[i] the next one after item i, -1
+     * ends the list. Null until the first move.
+     */
+    private int[] movedCell, movedHead, movedNext;
+    private int movedCount;
+
+    @Override
+    public void build( List<? extends SnapTarget> targets ) {
+        int n = targets.size();
+        items = targets.toArray( SnapTarget[]::new );
+        xs = new double[ n ];
+        ys = new double[ n ];
+        radii = new double[ n ];
+        offsetX = 0.0;
+        offsetY = 0.0;
+        maxRadius = 0.0;
+        movedCell = movedHead = movedNext = null;
+        movedCount = 0;
+        if ( n == 0 ) {
+            cols = rows = 0;
+            cellStart = new int[ 1 ];
+            cellItems = new int[ 0 ];
+            return;
+        }
+
+        minX = minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for ( int i = 0; i < n; i++ ) {
+            SnapTarget t = items[ i ];
+            xs[ i ] = t.getLayoutX();
+            ys[ i ] = t.getLayoutY();
+            radii[ i ] = t.rangeRadius();
+            maxRadius = Math.max( maxRadius, radii[ i ] );
+            minX = Math.min( minX, xs[ i ] );
+            minY = Math.min( minY, ys[ i ] );
+            maxX = Math.max( maxX, xs[ i ] );
+            maxY = Math.max( maxY, ys[ i ] );
+        }
+
+        double width = Math.max( maxX - minX, 1.0 );
+        double height = Math.max( maxY - minY, 1.0 );
+        cellSize = Math.sqrt( width * height / n );
+        cols = (int) ( width / cellSize ) + 1;
+        rows = (int) ( height / cellSize ) + 1;
+
+        // counting sort of the items into their cells
+        int[] cellOf = new int[ n ];
+        cellStart = new int[ cols * rows + 1 ];
+        for ( int i = 0; i < n; i++ ) {
+            cellOf[ i ] = column( xs[ i ] ) + row( ys[ i ] ) * cols;
+            cellStart[ cellOf[ i ] + 1 ]++;
+        }
+        for ( int c = 0; c < cols * rows; c++ ) {
+            cellStart[ c + 1 ] += cellStart[ c ];
+        }
+        int[] fill = cellStart.clone();
+        cellItems = new int[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            cellItems[ fill[ cellOf[ i ] ]++ ] = i;
+        }
+    }
+
+    @Override
+    public Optional<SnapTarget> nearest( double x, double y ) {
+        if ( items.length == 0 ) {
+            return Optional.empty();
+        }
+        double qx = x - offsetX;
+        double qy = y - offsetY;
+        int cx = column( qx );
+        int cy = row( qy );
+
+        int best = -1;
+        for ( int r = 0;; r++ ) {
+            int x0 = cx - r, x1 = cx + r, y0 = cy - r, y1 = cy + r;
+            for ( int j = Math.max( y0, 0 ); j <= Math.min( y1, rows - 1 ); j++ ) {
+                boolean fullRow = j == y0 || j == y1;
+                for ( int i = Math.max( x0, 0 ); i <= Math.min( x1, cols - 1 ); i++ ) {
+                    if ( !fullRow && i != x0 && i != x1 ) {
+                        i = x1 - 1;
+                        continue;
+                    }
+                    best = visit( i + j * cols, qx, qy, best, false );
+                }
+            }
+            double bestD2 = best < 0 ? Double.POSITIVE_INFINITY
+                    : distance2( best, qx, qy );
+
+            // distance to the nearest cell that has not been visited yet
+            double bound = Double.POSITIVE_INFINITY;
+            if ( x0 > 0 ) {
+                bound = Math.min( bound, qx - ( minX + x0 * cellSize ) );
+            }
+            if ( x1 < cols - 1 ) {
+                bound = Math.min( bound, minX + ( x1 + 1 ) * cellSize - qx );
+            }
+            if ( y0 > 0 ) {
+                bound = Math.min( bound, qy - ( minY + y0 * cellSize ) );
+            }
+            if ( y1 < rows - 1 ) {
+                bound = Math.min( bound, minY + ( y1 + 1 ) * cellSize - qy );
+            }
+            if ( bound == Double.POSITIVE_INFINITY
+                    || ( best >= 0 && bestD2 <= Math.max( bound, 0.0 ) * Math.max( bound, 0.0 ) ) ) {
+                return Optional.of( items[ best ] );
+            }
+        }
+    }
+
+    @Override
+    public Optional<SnapTarget> nearby( double x, double y ) {
+        if ( items.length == 0 ) {
+            return Optional.empty();
+        }
+        double qx = x - offsetX;
+        double qy = y - offsetY;
+        int i0 = column( qx - maxRadius ), i1 = column( qx + maxRadius );
+        int j0 = row( qy - maxRadius ), j1 = row( qy + maxRadius );
+
+        int best = -1;
+        for ( int j = j0; j <= j1; j++ ) {
+            for ( int i = i0; i <= i1; i++ ) {
+                best = visit( i + j * cols, qx, qy, best, true );
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of( items[ best ] );
+    }
+
+    @Override
+    public void translate( double dx, double dy ) {
+        offsetX += dx;
+        offsetY += dy;
+    }
+
+    /**
+     * Moving a target takes it out of its cell and puts it in the list of
+     * the cell it moved to. Once half of the targets have moved, the grid is
+     * built again, which keeps the cost of a move constant on average.
+     */
+    @Override
+    public void moved( int index ) {
+        int was = movedCell == null || movedCell[ index ] < 0
+                ? column( xs[ index ] ) + row( ys[ index ] ) * cols
+                : movedCell[ index ];
+        SnapTarget t = items[ index ];
+        xs[ index ] = t.getLayoutX() - offsetX;
+        ys[ index ] = t.getLayoutY() - offsetY;
+        radii[ index ] = t.rangeRadius();
+        maxRadius = Math.max( maxRadius, radii[ index ] );
+        int cell = column( xs[ index ] ) + row( ys[ index ] ) * cols;
+        if ( cell == was ) {
+            return;
+        }
+
+        if ( movedCell == null ) {
+            movedCell = new int[ items.length ];
+            movedNext = new int[ items.length ];
+            movedHead = new int[ cols * rows ];
+            Arrays.fill( movedCell, -1 );
+            Arrays.fill( movedHead, -1 );
+        }
+        if ( movedCell[ index ] >= 0 ) {
+            unlink( index );
+        } else if ( ++movedCount > items.length / 2 ) {
+            build( Arrays.asList( items ) );
+            return;
+        }
+        movedCell[ index ] = cell;
+        movedNext[ index ] = movedHead[ cell ];
+        movedHead[ cell ] = index;
+    }
+
+    /**
+     * Take a moved item out of the list of its cell.
+     */
+    private void unlink( int item ) {
+        int cell = movedCell[ item ];
+        if ( movedHead[ cell ] == item ) {
+            movedHead[ cell ] = movedNext[ item ];
+            return;
+        }
+        int prev = movedHead[ cell ];
+        while ( movedNext[ prev ] != item ) {
+            prev = movedNext[ prev ];
+        }
+        movedNext[ prev ] = movedNext[ item ];
+    }
+
+    /**
+     * Compare the items of a cell with the best item found so far.
+     *
+     * @param cell    to visit
+     * @param qx      x-value of the query, relative to the build
+     * @param qy      y-value of the query, relative to the build
+     * @param best    item found so far, -1 for none
+     * @param inRange only accept items that have the coordinate in range
+     * @return the nearest of best and the items of the cell
+     */
+    private int visit( int cell, double qx, double qy, int best, boolean inRange ) {
+        for ( int k = cellStart[ cell ]; k < cellStart[ cell + 1 ]; k++ ) {
+            int item = cellItems[ k ];
+            if ( movedCell == null || movedCell[ item ] < 0 ) {
+                best = nearer( item, qx, qy, best, inRange );
+            }
+        }
+        if ( movedHead != null ) {
+            for ( int item = movedHead[ cell ]; item >= 0; item = movedNext[ item ] ) {
+                best = nearer( item, qx, qy, best, inRange );
+            }
+        }
+        return best;
+    }
+
+    private int nearer( int item, double qx, double qy, int best, boolean inRange ) {
+        double d2 = distance2( item, qx, qy );
+        if ( inRange && !( d2 < radii[ item ] * radii[ item ] ) ) {
+            return best;
+        }
+        if ( best < 0 ) {
+            return item;
+        }
+        double bestD2 = distance2( best, qx, qy );
+        return d2 < bestD2 || ( d2 == bestD2 && item < best ) ? item : best;
+    }
+
+    private double distance2( int item, double qx, double qy ) {
+        double xd = qx - xs[ item ];
+        double yd = qy - ys[ item ];
+        return xd * xd + yd * yd;
+    }
+
+    /**
+     * Grid column of an x-value, clamped to the grid.
+     */
+    private int column( double x ) {
+        return clamp( ( x - minX ) / cellSize, cols );
+    }
+
+    /**
+     * Grid row of a y-value, clamped to the grid.
+     */
+    private int row( double y ) {
+        return clamp( ( y - minY ) / cellSize, rows );
+    }
+
+    private static int clamp( double cell, int count ) {
+        if ( !( cell > 0.0 ) ) {
+            return 0;
+        }
+        return cell >= count ? count - 1 : (int) cell;
+    }
+}
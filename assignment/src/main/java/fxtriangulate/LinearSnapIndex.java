@@ -0,0 +1,45 @@
+package fxtriangulate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SnapIndex that simply inspects all targets on every query. Reads the live
+ * coordinates of the targets, so it never needs to be translated or told
+ * about a moved target. Fine for a handful of targets.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class LinearSnapIndex implements SnapIndex {
+
+    private List<? extends SnapTarget> targets = List.of();
+
+    @Override
+    public void build( List<? extends SnapTarget> targets ) {
+        this.targets = targets;
+    }
+
+    @Override
+    public Optional<SnapTarget> nearest( double x, double y ) {
+        return targets.stream()
+                .min( Comparator.comparingDouble( t -> t.distanceTo( x, y ) ) )
+                .map( SnapTarget.class::cast );
+    }
+
+    @Override
+    public Optional<SnapTarget> nearby( double x, double y ) {
+        return targets.stream()
+                .filter( t -> t.inRange( x, y ) )
+                .min( Comparator.comparingDouble( t -> t.distanceTo( x, y ) ) )
+                .map( SnapTarget.class::cast );
+    }
+
+    @Override
+    public void translate( double dx, double dy ) {
+    }
+
+    @Override
+    public void moved( int index ) {
+    }
+}
@@ -1,39 +1,165 @@
 package fxtriangulate;
 
-import java.util.HashSet;
-import java.util.Set;
+import fxtriangulate.metrics.Histogram;
+import fxtriangulate.metrics.Metrics;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.value.ObservableDoubleValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 
 /**
  * A double binding that allows modification of its dependencies.
- * When a certain DoubleProperty should not be part of the sum anymore, the 
- * complete binding should be recreated.
+ *
+ * Adding or removing a value only attaches or detaches a listener to that
+ * value. The binding keeps a running total. When one of the values is
+ * invalidated, only that value is marked as dirty and on the next computation
+ * the total is corrected by the difference between its new and its last seen
+ * value. The corrections are added with Kahan summation and every
+ * {@link #RESUM_INTERVAL} corrections the total is recomputed from scratch, so
+ * rounding errors cannot accumulate.
  *
  * @author Pieter van den Hombergh / Richard van den Ham
  */
 class ModifyableSumBinding extends DoubleBinding {
 
-    Set<ObservableDoubleValue> values = new HashSet<>();
+    /**
+     * Number of delta corrections after which the total is recomputed.
+     */
+    static final int RESUM_INTERVAL = 1024;
+
+    static final Histogram COMPUTE = Metrics.histogram( "sum.compute" );
+
+    /**
+     * The values in the sum, each with its own listener and last known value.
+     */
+    final Map<ObservableDoubleValue, Term> terms = new HashMap<>();
+
+    /**
+     * Terms that were invalidated since the last computation.
+     */
+    private final List<Term> dirty = new ArrayList<>();
+
+    private double sum, compensation;
+    private int corrections;
+
+    /**
+     * A value in the sum.
+     */
+    private final class Term implements InvalidationListener {
+
+        final ObservableDoubleValue value;
+        final WeakInvalidationListener listener;
+        double last;
+        boolean isDirty;
+
+        Term( ObservableDoubleValue value ) {
+            this.value = value;
+            this.listener = new WeakInvalidationListener( this );
+            this.last = value.get();
+        }
+
+        @Override
+        public void invalidated( Observable observable ) {
+            if ( !isDirty ) {
+                isDirty = true;
+                dirty.add( this );
+            }
+            invalidate();
+        }
+    }
 
     @Override
     protected double computeValue() {
-        double result = values.stream()
-                .mapToDouble( ObservableDoubleValue::get ).sum();
-        return result;
+        long start = COMPUTE.start();
+        for ( Term t : dirty ) {
+            if ( t.isDirty ) {
+                t.isDirty = false;
+                double current = t.value.get();
+                addCompensated( current - t.last );
+                t.last = current;
+                corrections++;
+            }
+        }
+        dirty.clear();
+
+        if ( corrections >= RESUM_INTERVAL ) {
+            resum();
+        }
+
+        COMPUTE.stop( start );
+        return sum + compensation;
     }
 
     void add( ObservableDoubleValue v ) {
-        unbind( values.toArray( ObservableDoubleValue[]::new ) );
-        values.add( v );
-        bind( values.toArray( ObservableDoubleValue[]::new ) );
+        if ( terms.containsKey( v ) ) {
+            return;
+        }
+        Term t = new Term( v );
+        terms.put( v, t );
+        v.addListener( t.listener );
+        addCompensated( t.last );
         invalidate();
     }
 
     void remove( ObservableDoubleValue v ) {
-        unbind( values.toArray( ObservableDoubleValue[]::new ) );
-        values.remove( v );
-        bind( values.toArray( ObservableDoubleValue[]::new ) );
+        Term t = terms.remove( v );
+        if ( t == null ) {
+            return;
+        }
+        v.removeListener( t.listener );
+        if ( t.isDirty ) {
+            // it no longer counts, so the pending correction is irrelevant
+            t.isDirty = false;
+            dirty.remove( t );
+        }
+        addCompensated( -t.last );
+        if ( terms.isEmpty() ) {
+            sum = 0.0;
+            compensation = 0.0;
+        }
         invalidate();
     }
+
+    @Override
+    public void dispose() {
+        terms.values().forEach( t -> t.value.removeListener( t.listener ) );
+        terms.clear();
+        dirty.clear();
+    }
+
+    @Override
+    public ObservableList<?> getDependencies() {
+        return FXCollections.unmodifiableObservableList(
+                FXCollections.observableArrayList( terms.keySet() ) );
+    }
+
+    /**
+     * Recompute the total from the current values of all terms.
+     */
+    private void resum() {
+        sum = 0.0;
+        compensation = 0.0;
+        corrections = 0;
+        for ( Term t : terms.values() ) {
+            t.last = t.value.get();
+            addCompensated( t.last );
+        }
+    }
+
+    /**
+     * Kahan summation step.
+     */
+    private void addCompensated( double delta ) {
+        double y = delta + compensation;
+        double t = sum + y;
+        compensation = y - ( t - sum );
+        sum = t;
+    }
 }
@@ -0,0 +1,316 @@
+package fxtriangulate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of polygon point files, producing the coordinates in
+ * chunks of primitive doubles.
+ *
+ * Two kinds of files are understood:
+ * <ul>
+ * <li>binary: the magic number 0x53565031, the point count and the
+ * coordinates, all little endian, x and y interleaved. This is the format the
+ * surveyor saves points in.</li>
+ * <li>text, like CSV or WKT: every two numbers in the file form a point,
+ * anything that is not a number (a header, POLYGON, parentheses) is skipped.
+ * When the last point repeats the first one, as it does in a closed WKT ring,
+ * it is dropped.</li>
+ * </ul>
+ *
+ * The file is read in blocks, so the memory used does not depend on its size.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class PointFileReader implements Closeable {
+
+    static final int MAGIC = 0x53565031;
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long size;
+    private final boolean binary;
+    private final ByteBuffer block = ByteBuffer.allocate( 1 << 16 )
+            .order( ByteOrder.LITTLE_ENDIAN );
+    private boolean endOfFile;
+
+    // text state: the held back last point and the first point
+    private final StringBuilder token = new StringBuilder();
+    private double pendingX = Double.NaN;
+    private boolean hasPendingX, hasPendingPoint;
+    private double heldX, heldY, firstX, firstY;
+    private long points;
+
+    private PointFileReader( FileChannel channel ) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        block.limit( 0 );
+        fill();
+        binary = block.remaining() >= 8 && block.getInt( block.position() ) == MAGIC;
+        if ( binary ) {
+            block.position( block.position() + 8 );
+        }
+    }
+
+    /**
+     * Open a point file.
+     *
+     * @param file to read
+     * @return the reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static PointFileReader open( Path file ) throws IOException {
+        FileChannel channel = FileChannel.open( file, StandardOpenOption.READ );
+        try {
+            return new PointFileReader( channel );
+        } catch ( IOException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read all points of a file.
+     *
+     * @param file to read
+     * @return the coordinates, x and y interleaved
+     * @throws IOException if the file cannot be read
+     */
+    public static double[] readAll( Path file ) throws IOException {
+        try ( PointFileReader reader = open( file ) ) {
+            double[] xy = new double[ 64 ];
+            double[] chunk = new double[ 8192 ];
+            int size = 0;
+            int n;
+            while ( ( n = reader.read( chunk ) ) >= 0 ) {
+                if ( size + 2 * n > xy.length ) {
+                    xy = Arrays.copyOf( xy, Math.max( size + 2 * n, 2 * xy.length ) );
+                }
+                System.arraycopy( chunk, 0, xy, size, 2 * n );
+                size += 2 * n;
+            }
+            return Arrays.copyOf( xy, size );
+        }
+    }
+
+    /**
+     * Read the next points.
+     *
+     * @param xy buffer for the coordinates, x and y interleaved; its length
+     *           must be even
+     * @return number of points read, -1 at the end of the file
+     * @throws IOException on read failure
+     */
+    public int read( double[] xy ) throws IOException {
+        int count = binary ? readBinary( xy ) : readText( xy );
+        return count == 0 && endOfFile && block.remaining() == 0 && !hasPendingPoint
+                ? -1 : count;
+    }
+
+    /**
+     * Bytes consumed so far, for progress reporting.
+     *
+     * @return the position in the file
+     */
+    public long position() {
+        try {
+            return channel.position() - block.remaining();
+        } catch ( IOException e ) {
+            return size;
+        }
+    }
+
+    /**
+     * Size of the file in bytes.
+     *
+     * @return the size
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void fill() throws IOException {
+        block.compact();
+        while ( block.hasRemaining() ) {
+            int n = channel.read( block );
+            if ( n < 0 ) {
+                endOfFile = true;
+                break;
+            }
+            if ( n == 0 ) {
+                break;
+            }
+        }
+        block.flip();
+    }
+
+    private int readBinary( double[] xy ) throws IOException {
+        int n = 0;
+        while ( n < xy.length ) {
+            if ( block.remaining() < 16 ) {
+                if ( endOfFile ) {
+                    block.position( block.limit() );
+                    break;
+                }
+                fill();
+                continue;
+            }
+            xy[ n++ ] = block.getDouble();
+            xy[ n++ ] = block.getDouble();
+        }
+        return n / 2;
+    }
+
+    private int readText( double[] xy ) throws IOException {
+        int n = 0;
+        while ( n < xy.length ) {
+            if ( !block.hasRemaining() ) {
+                if ( endOfFile ) {
+                    break;
+                }
+                fill();
+                continue;
+            }
+            char c = (char) ( block.get() & 0xff );
+            if ( !isSeparator( c ) ) {
+                token.append( c );
+                continue;
+            }
+            n = endToken( xy, n );
+        }
+        if ( n < xy.length && endOfFile && !block.hasRemaining() ) {
+            n = endToken( xy, n );
+            if ( hasPendingPoint && n < xy.length ) {
+                // the last point closes the ring if it equals the first
+                if ( points > 1 && heldX == firstX && heldY == firstY ) {
+                    hasPendingPoint = false;
+                } else {
+                    xy[ n++ ] = heldX;
+                    xy[ n++ ] = heldY;
+                    hasPendingPoint = false;
+                }
+            }
+        }
+        return n / 2;
+    }
+
+    /**
+     * Finish the current token. A number completes a point together with the
+     * number before it; the previous point is released once a new one is
+     * complete.
+     */
+    private int endToken( double[] xy, int n ) {
+        if ( token.length() == 0 ) {
+            return n;
+        }
+        double v = parse( token );
+        token.setLength( 0 );
+        if ( Double.isNaN( v ) ) {
+            return n;
+        }
+        if ( !hasPendingX ) {
+            pendingX = v;
+            hasPendingX = true;
+            return n;
+        }
+        hasPendingX = false;
+        if ( hasPendingPoint ) {
+            xy[ n++ ] = heldX;
+            xy[ n++ ] = heldY;
+        } else if ( points == 0 ) {
+            firstX = pendingX;
+            firstY = v;
+        }
+        heldX = pendingX;
+        heldY = v;
+        hasPendingPoint = true;
+        points++;
+        return n;
+    }
+
+    private static boolean isSeparator( char c ) {
+        return c <= ' ' || c == ',' || c == ';' || c == '(' || c == ')';
+    }
+
+    /**
+     * Parse a decimal number, NaN if the token is not a number. Numbers with
+     * at most 15 significant digits and a small exponent are converted
+     * exactly with a single multiplication or division, others are left to
+     * Double.parseDouble.
+     */
+    static double parse( CharSequence s ) {
+        int i = 0;
+        int length = s.length();
+        boolean negative = false;
+        if ( i < length && ( s.charAt( i ) == '-' || s.charAt( i ) == '+' ) ) {
+            negative = s.charAt( i ) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean any = false;
+        boolean dot = false;
+        for ( ; i < length; i++ ) {
+            char c = s.charAt( i );
+            if ( c >= '0' && c <= '9' ) {
+                any = true;
+                if ( mantissa == 0 && c == '0' ) {
+                    scale -= dot ? 1 : 0;
+                    continue;
+                }
+                if ( digits < 18 ) {
+                    mantissa = 10 * mantissa + ( c - '0' );
+                    digits++;
+                    scale -= dot ? 1 : 0;
+                } else {
+                    scale += dot ? 0 : 1;
+                }
+            } else if ( c == '.' && !dot ) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if ( !any ) {
+            return Double.NaN;
+        }
+        if ( i < length ) {
+            char c = s.charAt( i );
+            if ( c != 'e' && c != 'E' ) {
+                return Double.NaN;
+            }
+            return slowParse( s );
+        }
+        if ( digits <= 15 && scale >= -22 && scale <= 22 ) {
+            double v = scale < 0 ? mantissa / POW10[ -scale ] : mantissa * POW10[ scale ];
+            if ( scale <= 0 || v < 1e15 ) {
+                return negative ? -v : v;
+            }
+        }
+        return slowParse( s );
+    }
+
+    private static double slowParse( CharSequence s ) {
+        try {
+            return Double.parseDouble( s.toString() );
+        } catch ( NumberFormatException e ) {
+            return Double.NaN;
+        }
+    }
+}
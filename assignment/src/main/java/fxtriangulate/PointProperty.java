@@ -0,0 +1,80 @@
+package fxtriangulate;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Point2D;
+import javafx.scene.shape.Circle;
+
+/**
+ * The center of a circle as one point valued property.
+ *
+ * Setting the point moves the circle in one go: bindings that observe the
+ * point are invalidated once per move, where bindings on centerX and centerY
+ * are invalidated twice, once for each coordinate. The property also follows
+ * the circle when its centerX or centerY is set directly.
+ *
+ * There is one point property per circle, see {@link #of(Circle)}.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class PointProperty extends SimpleObjectProperty<Point2D> {
+
+    private static final String KEY = PointProperty.class.getName();
+
+    private final Circle circle;
+
+    /**
+     * True while this property moves the circle itself.
+     */
+    private boolean moving;
+
+    private PointProperty( Circle circle ) {
+        super( circle, "center", new Point2D( circle.getCenterX(), circle.getCenterY() ) );
+        this.circle = circle;
+        circle.centerXProperty().addListener( o -> follow() );
+        circle.centerYProperty().addListener( o -> follow() );
+    }
+
+    /**
+     * The point property of a circle, created on first use.
+     *
+     * @param circle whose center to get
+     * @return the point property
+     */
+    static PointProperty of( Circle circle ) {
+        return (PointProperty) circle.getProperties()
+                .computeIfAbsent( KEY, k -> new PointProperty( circle ) );
+    }
+
+    /**
+     * Move the circle to the point.
+     *
+     * @param p the new center, not null
+     */
+    @Override
+    public void set( Point2D p ) {
+        moving = true;
+        try {
+            circle.setCenterX( p.getX() );
+            circle.setCenterY( p.getY() );
+        } finally {
+            moving = false;
+        }
+        super.set( p );
+    }
+
+    /**
+     * Move the circle to x, y.
+     *
+     * @param x new center x
+     * @param y new center y
+     */
+    void moveTo( double x, double y ) {
+        set( new Point2D( x, y ) );
+    }
+
+    private void follow() {
+        if ( !moving ) {
+            super.set( new Point2D( circle.getCenterX(), circle.getCenterY() ) );
+        }
+    }
+}
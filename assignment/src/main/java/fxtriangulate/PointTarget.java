@@ -0,0 +1,53 @@
+package fxtriangulate;
+
+/**
+ * SnapTarget for a vertex of the polygon, without a node of its own.
+ *
+ * The position is read from the polygon points and the position of the
+ * polygon, so a target costs one small object per vertex instead of a label
+ * with bindings and a tooltip. A label is only shown when the target gets
+ * focus, see {@link VertexLabels}.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class PointTarget implements SnapTarget {
+
+    private final VertexLabels labels;
+    private final int vertex;
+
+    PointTarget( VertexLabels labels, int vertex ) {
+        this.labels = labels;
+        this.vertex = vertex;
+    }
+
+    /**
+     * Index of the vertex in the polygon.
+     *
+     * @return the vertex
+     */
+    int vertex() {
+        return vertex;
+    }
+
+    @Override
+    public PointTarget focussed( boolean focus ) {
+        labels.focus( vertex, focus );
+        return this;
+    }
+
+    @Override
+    public double getLayoutX() {
+        return labels.x( vertex );
+    }
+
+    @Override
+    public double getLayoutY() {
+        return labels.y( vertex );
+    }
+
+    @Override
+    public String toString() {
+        return "PointTarget{" + VertexLabels.name( vertex ) + " at(" + getLayoutX()
+                + "," + getLayoutY() + ")" + '}';
+    }
+}
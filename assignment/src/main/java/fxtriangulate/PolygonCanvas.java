@@ -0,0 +1,269 @@
+package fxtriangulate;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.ListChangeListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+
+/**
+ * Draws the polygon and its vertices on a canvas instead of as nodes.
+ *
+ * The canvas repaints at most once per frame, and only the dirty region: the
+ * part of the canvas that was covered by the polygon before a change and the
+ * part it covers after. Moving the polygon over a large canvas only repaints
+ * the area it passed, and vertex markers outside that area are not drawn at
+ * all. When too many vertices fall in the dirty region to tell them apart,
+ * the markers are left out and only the outline is drawn. When single vertices
+ * move, only the area of their two edges before and after the move is dirty,
+ * and the canvas copies just those vertices.
+ *
+ * The polygon node stays in the scene, fully transparent, so it still picks
+ * the mouse events for dragging.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class PolygonCanvas extends Canvas {
+
+    /**
+     * Above this number of vertices in the dirty region no markers are drawn.
+     */
+    static final int MAX_MARKERS = 20_000;
+
+    static final double MARKER = 3.0;
+
+    private final Polygon polygon;
+    private final PolygonPoints points;
+
+    private double[] xs = new double[ 0 ], ys = new double[ 0 ];
+    private int n;
+    private boolean stale = true;
+
+    /**
+     * Bounding box of the points, relative to the polygon.
+     */
+    private double minX, minY, maxX, maxY;
+
+    /**
+     * Dirty region in canvas coordinates, empty when min > max.
+     */
+    private double dirtyMinX = Double.POSITIVE_INFINITY, dirtyMinY = Double.POSITIVE_INFINITY;
+    private double dirtyMaxX = Double.NEGATIVE_INFINITY, dirtyMaxY = Double.NEGATIVE_INFINITY;
+
+    private boolean enabled;
+
+    private final AnimationTimer frame = new AnimationTimer() {
+        @Override
+        public void handle( long now ) {
+            stop();
+            paint();
+        }
+    };
+
+    /**
+     * Create the canvas for a polygon.
+     *
+     * @param polygon to draw, for its position and style
+     * @param points  the points of the polygon
+     */
+    PolygonCanvas( Polygon polygon, PolygonPoints points ) {
+        this.polygon = polygon;
+        this.points = points;
+        points.observable().addListener( this::pointsChanged );
+        polygon.layoutXProperty().addListener( ( o, was, is ) -> {
+            dirtyPolygon( was.doubleValue(), polygon.getLayoutY() );
+            dirtyPolygon( is.doubleValue(), polygon.getLayoutY() );
+        } );
+        polygon.layoutYProperty().addListener( ( o, was, is ) -> {
+            dirtyPolygon( polygon.getLayoutX(), was.doubleValue() );
+            dirtyPolygon( polygon.getLayoutX(), is.doubleValue() );
+        } );
+        widthProperty().addListener( ( o, was, is ) -> dirtyAll() );
+        heightProperty().addListener( ( o, was, is ) -> dirtyAll() );
+        setMouseTransparent( true );
+    }
+
+    /**
+     * Start or stop drawing. A disabled canvas ignores changes until it is
+     * enabled again, and then repaints everything.
+     *
+     * @param enabled true to draw
+     */
+    void setEnabled( boolean enabled ) {
+        this.enabled = enabled;
+        if ( enabled ) {
+            dirtyAll();
+        } else {
+            frame.stop();
+        }
+    }
+
+    /**
+     * Follow replaced coordinates vertex by vertex; any other change of the
+     * points makes the canvas reload them all.
+     */
+    private void pointsChanged( ListChangeListener.Change<? extends Double> c ) {
+        if ( stale || points.size() != 2 * n ) {
+            stale = true;
+            dirtyAll();
+            return;
+        }
+        while ( c.next() ) {
+            if ( !c.wasReplaced() || c.getRemovedSize() != c.getAddedSize() ) {
+                stale = true;
+                dirtyAll();
+                return;
+            }
+            for ( int v = c.getFrom() / 2; v <= ( c.getTo() - 1 ) / 2; v++ ) {
+                moveVertex( v );
+            }
+        }
+    }
+
+    /**
+     * Take the new position of a vertex from the points and mark its two
+     * edges dirty, where they were and where they are now. The bounding box
+     * only grows, so after moves it may be larger than the points need.
+     */
+    private void moveVertex( int v ) {
+        double x = points.get( 2 * v );
+        double y = points.get( 2 * v + 1 );
+        if ( x == xs[ v ] && y == ys[ v ] ) {
+            // the buffer holds both coordinates when the first is reported
+            return;
+        }
+        int prev = v == 0 ? n - 1 : v - 1;
+        int next = v == n - 1 ? 0 : v + 1;
+        double x0 = Math.min( Math.min( xs[ prev ], xs[ next ] ), Math.min( xs[ v ], x ) );
+        double y0 = Math.min( Math.min( ys[ prev ], ys[ next ] ), Math.min( ys[ v ], y ) );
+        double x1 = Math.max( Math.max( xs[ prev ], xs[ next ] ), Math.max( xs[ v ], x ) );
+        double y1 = Math.max( Math.max( ys[ prev ], ys[ next ] ), Math.max( ys[ v ], y ) );
+        double pad = polygon.getStrokeWidth() + MARKER;
+        double dx = polygon.getLayoutX();
+        double dy = polygon.getLayoutY();
+        dirty( dx + x0 - pad, dy + y0 - pad, dx + x1 + pad, dy + y1 + pad );
+
+        xs[ v ] = x;
+        ys[ v ] = y;
+        minX = Math.min( minX, x );
+        minY = Math.min( minY, y );
+        maxX = Math.max( maxX, x );
+        maxY = Math.max( maxY, y );
+    }
+
+    private void dirtyAll() {
+        dirty( 0, 0, getWidth(), getHeight() );
+    }
+
+    /**
+     * Mark the area the polygon covers at the given position.
+     */
+    private void dirtyPolygon( double layoutX, double layoutY ) {
+        if ( stale ) {
+            dirtyAll();
+            return;
+        }
+        if ( n == 0 ) {
+            return;
+        }
+        double pad = polygon.getStrokeWidth() + MARKER;
+        dirty( layoutX + minX - pad, layoutY + minY - pad,
+                layoutX + maxX + pad, layoutY + maxY + pad );
+    }
+
+    private void dirty( double x0, double y0, double x1, double y1 ) {
+        dirtyMinX = Math.min( dirtyMinX, x0 );
+        dirtyMinY = Math.min( dirtyMinY, y0 );
+        dirtyMaxX = Math.max( dirtyMaxX, x1 );
+        dirtyMaxY = Math.max( dirtyMaxY, y1 );
+        if ( enabled ) {
+            frame.start();
+        }
+    }
+
+    /**
+     * Copy the points into the coordinate arrays the canvas draws from.
+     */
+    private void reload() {
+        n = points.size() / 2;
+        if ( xs.length < n ) {
+            xs = new double[ n ];
+            ys = new double[ n ];
+        }
+        minX = minY = Double.POSITIVE_INFINITY;
+        maxX = maxY = Double.NEGATIVE_INFINITY;
+        for ( int v = 0; v < n; v++ ) {
+            xs[ v ] = points.get( 2 * v );
+            ys[ v ] = points.get( 2 * v + 1 );
+            minX = Math.min( minX, xs[ v ] );
+            minY = Math.min( minY, ys[ v ] );
+            maxX = Math.max( maxX, xs[ v ] );
+            maxY = Math.max( maxY, ys[ v ] );
+        }
+        stale = false;
+    }
+
+    /**
+     * Repaint the dirty region.
+     */
+    void paint() {
+        if ( stale ) {
+            reload();
+        }
+        double x0 = Math.max( Math.floor( dirtyMinX ), 0 );
+        double y0 = Math.max( Math.floor( dirtyMinY ), 0 );
+        double x1 = Math.min( Math.ceil( dirtyMaxX ), getWidth() );
+        double y1 = Math.min( Math.ceil( dirtyMaxY ), getHeight() );
+        dirtyMinX = dirtyMinY = Double.POSITIVE_INFINITY;
+        dirtyMaxX = dirtyMaxY = Double.NEGATIVE_INFINITY;
+        if ( x0 >= x1 || y0 >= y1 ) {
+            return;
+        }
+
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.save();
+        gc.clearRect( x0, y0, x1 - x0, y1 - y0 );
+        gc.beginPath();
+        gc.rect( x0, y0, x1 - x0, y1 - y0 );
+        gc.clip();
+
+        double dx = polygon.getLayoutX();
+        double dy = polygon.getLayoutY();
+        gc.translate( dx, dy );
+        if ( n > 0 ) {
+            gc.setFill( polygon.getFill() );
+            gc.fillPolygon( xs, ys, n );
+            gc.setStroke( polygon.getStroke() );
+            gc.setLineWidth( polygon.getStrokeWidth() );
+            gc.setLineJoin( polygon.getStrokeLineJoin() );
+            gc.strokePolygon( xs, ys, n );
+        }
+        drawMarkers( gc, x0 - dx, y0 - dy, x1 - dx, y1 - dy );
+        gc.restore();
+    }
+
+    /**
+     * Draw a marker for every vertex in the region, relative to the polygon,
+     * unless there are too many.
+     */
+    private void drawMarkers( GraphicsContext gc, double x0, double y0,
+            double x1, double y1 ) {
+        int inRegion = 0;
+        for ( int v = 0; v < n && inRegion <= MAX_MARKERS; v++ ) {
+            if ( xs[ v ] >= x0 && xs[ v ] <= x1 && ys[ v ] >= y0 && ys[ v ] <= y1 ) {
+                inRegion++;
+            }
+        }
+        if ( inRegion > MAX_MARKERS ) {
+            return;
+        }
+        gc.setFill( Color.DIMGRAY );
+        double half = MARKER / 2;
+        for ( int v = 0; v < n; v++ ) {
+            if ( xs[ v ] >= x0 && xs[ v ] <= x1 && ys[ v ] >= y0 && ys[ v ] <= y1 ) {
+                gc.fillRect( xs[ v ] - half, ys[ v ] - half, MARKER, MARKER );
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package fxtriangulate;
+
+import fxtriangulate.geometry.DelaunayTriangulator;
+import java.util.Arrays;
+import javafx.collections.ListChangeListener;
+
+/**
+ * Delaunay triangulation of the vertices of a polygon, kept up to date while
+ * the polygon is edited.
+ *
+ * When only a few vertices changed, they are passed on to the triangulator: a
+ * moved vertex is moved, vertices that were added or removed at the end are
+ * inserted or removed. So a vertex drag, or loading a polygon that differs
+ * from the previous one in a few points, only re-triangulates the cavities
+ * around those points. A move costs a removal and an insertion, so when more
+ * than {@link #changeLimit} vertices changed the triangulation is built anew
+ * instead.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+class PolygonDelaunay {
+
+    private final PolygonPoints points;
+
+    private DelaunayTriangulator delaunay = new DelaunayTriangulator();
+
+    /**
+     * Primitive copy of the points, to find the vertices that changed.
+     */
+    private double[] xy = new double[ 0 ];
+
+    /**
+     * Triangulator id of every vertex.
+     */
+    private int[] ids = new int[ 0 ];
+    private int n;
+
+    /**
+     * Create the triangulation for the points of a polygon.
+     *
+     * @param points of the polygon
+     */
+    PolygonDelaunay( PolygonPoints points ) {
+        this.points = points;
+        points.observable().addListener( this::pointsChanged );
+        sync();
+    }
+
+    /**
+     * Vertex index in the polygon for every point of a triangle.
+     *
+     * @return three polygon vertex indices per triangle
+     */
+    int[] triangles() {
+        int[] vertexOf = new int[ delaunay.size() == 0 ? 0 : maxId() + 1 ];
+        for ( int v = 0; v < n; v++ ) {
+            vertexOf[ ids[ v ] ] = v;
+        }
+        int[] triangles = delaunay.triangles();
+        for ( int i = 0; i < triangles.length; i++ ) {
+            triangles[ i ] = vertexOf[ triangles[ i ] ];
+        }
+        return triangles;
+    }
+
+    private int maxId() {
+        int max = 0;
+        for ( int v = 0; v < n; v++ ) {
+            max = Math.max( max, ids[ v ] );
+        }
+        return max;
+    }
+
+    private void pointsChanged( ListChangeListener.Change<? extends Double> c ) {
+        boolean movesOnly = points.size() == 2 * n;
+        while ( movesOnly && c.next() ) {
+            movesOnly = c.wasReplaced()
+                    && c.getAddedSize() == c.getRemovedSize();
+        }
+        if ( !movesOnly ) {
+            sync();
+            return;
+        }
+        int changed = 0;
+        c.reset();
+        while ( c.next() ) {
+            changed += changed( c.getFrom() / 2, ( c.getTo() + 1 ) / 2 );
+        }
+        if ( changed > changeLimit( n ) ) {
+            rebuild();
+            return;
+        }
+        c.reset();
+        while ( c.next() ) {
+            int lastVertex = ( c.getTo() - 1 ) / 2;
+            for ( int v = c.getFrom() / 2; v <= lastVertex; v++ ) {
+                update( v, points.get( 2 * v ), points.get( 2 * v + 1 ) );
+            }
+        }
+    }
+
+    /**
+     * Number of changed vertices above which building the triangulation anew
+     * is cheaper than passing the changes on.
+     *
+     * @param n number of vertices
+     * @return the limit
+     */
+    static int changeLimit( int n ) {
+        return Math.max( 8, n / 16 );
+    }
+
+    /**
+     * Number of vertices in [from, to) that differ from the copy.
+     */
+    private int changed( int from, int to ) {
+        int changed = 0;
+        for ( int v = from; v < to; v++ ) {
+            if ( xy[ 2 * v ] != points.get( 2 * v )
+                    || xy[ 2 * v + 1 ] != points.get( 2 * v + 1 ) ) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Compare all points with the copy and pass the differences on, or start
+     * over when there are too many.
+     */
+    private void sync() {
+        int size = points.size() / 2;
+        int kept = Math.min( n, size );
+        int changed = Math.abs( size - n ) + changed( 0, kept );
+        if ( changed > changeLimit( Math.max( n, size ) ) ) {
+            rebuild();
+            return;
+        }
+        for ( int v = size; v < n; v++ ) {
+            delaunay.remove( ids[ v ] );
+        }
+        if ( xy.length < 2 * size ) {
+            xy = Arrays.copyOf( xy, 2 * size );
+            ids = Arrays.copyOf( ids, size );
+        }
+        for ( int v = 0; v < kept; v++ ) {
+            update( v, points.get( 2 * v ), points.get( 2 * v + 1 ) );
+        }
+        for ( int v = kept; v < size; v++ ) {
+            xy[ 2 * v ] = points.get( 2 * v );
+            xy[ 2 * v + 1 ] = points.get( 2 * v + 1 );
+            ids[ v ] = delaunay.insert( xy[ 2 * v ], xy[ 2 * v + 1 ] );
+        }
+        n = size;
+    }
+
+    /**
+     * Triangulate all points in a new triangulator.
+     */
+    private void rebuild() {
+        n = points.size() / 2;
+        delaunay = new DelaunayTriangulator();
+        if ( xy.length < 2 * n ) {
+            xy = new double[ 2 * n ];
+            ids = new int[ n ];
+        }
+        for ( int v = 0; v < n; v++ ) {
+            xy[ 2 * v ] = points.get( 2 * v );
+            xy[ 2 * v + 1 ] = points.get( 2 * v + 1 );
+            ids[ v ] = delaunay.insert( xy[ 2 * v ], xy[ 2 * v + 1 ] );
+        }
+    }
+
+    private void update( int v, double x, double y ) {
+        if ( xy[ 2 * v ] != x || xy[ 2 * v + 1 ] != y ) {
+            xy[ 2 * v ] = x;
+            xy[ 2 * v + 1 ] = y;
+            delaunay.move( ids[ v ], x, y );
+        }
+    }
+}
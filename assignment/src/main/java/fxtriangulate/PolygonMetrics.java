@@ -0,0 +1,200 @@
+package fxtriangulate;
+
+import fxtriangulate.geometry.Geometry;
+import fxtriangulate.geometry.ParallelShoelace;
+import java.util.concurrent.ForkJoinPool;
+import javafx.beans.binding.DoubleBinding;
+import javafx.collections.ListChangeListener;
+
+/**
+ * Area and perimeter of a whole polygon as bindings, without triangulating.
+ *
+ * The metrics follow the point list of the polygon. When the list is replaced
+ * as a whole, area and perimeter are computed in a single pass over a
+ * primitive copy of the points, using the shoelace formula. When single
+ * coordinates are replaced (a vertex moves), only the contributions of the
+ * two edges at that vertex are corrected, which costs O(1) regardless of the
+ * size of the polygon.
+ *
+ * The running sums use Kahan summation and are recomputed from scratch after
+ * as many corrections as the polygon has vertices (but at least
+ * {@link #RESUM_INTERVAL}), which keeps the amortized cost per move constant.
+ * Polygons of more than {@link ParallelShoelace#CHUNK} vertices are summed in
+ * chunks on the common fork join pool.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+class PolygonMetrics {
+
+    static final int RESUM_INTERVAL = 1024;
+
+    private final PolygonPoints points;
+
+    /**
+     * Primitive copy of the points, so the old position of a moved vertex is
+     * known.
+     */
+    private double[] xy = new double[ 0 ];
+    private int n;
+
+    /**
+     * Fixed reference point for the shoelace terms.
+     */
+    private double rx, ry;
+
+    /**
+     * Cached edge lengths, edge i runs from vertex i to vertex i+1.
+     */
+    private double[] edges = new double[ 0 ];
+
+    private double twiceArea, twiceAreaC;
+    private double perimeter, perimeterC;
+    private int corrections;
+
+    private final DoubleBinding area = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            return Math.abs( twiceArea + twiceAreaC ) / 2;
+        }
+    };
+
+    private final DoubleBinding perimeterBinding = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            return perimeter + perimeterC;
+        }
+    };
+
+    /**
+     * Create the metrics for the points of a polygon.
+     *
+     * @param points of the polygon
+     */
+    PolygonMetrics( PolygonPoints points ) {
+        this.points = points;
+        points.observable().addListener( this::pointsChanged );
+        recompute();
+    }
+
+    DoubleBinding areaBinding() {
+        return area;
+    }
+
+    DoubleBinding perimeterBinding() {
+        return perimeterBinding;
+    }
+
+    private void pointsChanged( ListChangeListener.Change<? extends Double> c ) {
+        boolean movesOnly = points.size() == 2 * n;
+        while ( movesOnly && c.next() ) {
+            movesOnly = c.wasReplaced()
+                    && c.getAddedSize() == c.getRemovedSize();
+        }
+        if ( !movesOnly ) {
+            recompute();
+        } else {
+            c.reset();
+            while ( c.next() ) {
+                int lastVertex = ( c.getTo() - 1 ) / 2;
+                for ( int v = c.getFrom() / 2; v <= lastVertex; v++ ) {
+                    moveVertex( v, points.get( 2 * v ), points.get( 2 * v + 1 ) );
+                }
+            }
+            if ( corrections >= Math.max( RESUM_INTERVAL, n ) ) {
+                resum();
+            }
+        }
+        area.invalidate();
+        perimeterBinding.invalidate();
+    }
+
+    /**
+     * Read all points and compute area and perimeter in one pass.
+     */
+    private void recompute() {
+        n = points.size() / 2;
+        if ( xy.length != 2 * n ) {
+            xy = new double[ 2 * n ];
+            edges = new double[ n ];
+        }
+        for ( int i = 0; i < 2 * n; i++ ) {
+            xy[ i ] = points.get( i );
+        }
+        resum();
+    }
+
+    /**
+     * Pass over the vertices, refreshing the edge cache and both sums. The
+     * first vertex becomes the reference point.
+     */
+    private void resum() {
+        rx = n > 0 ? xy[ 0 ] : 0.0;
+        ry = n > 0 ? xy[ 1 ] : 0.0;
+        double[] sums = ParallelShoelace.sums( ForkJoinPool.commonPool(), xy, 0, n,
+                edges, new double[ 2 ] );
+        twiceArea = sums[ 0 ];
+        twiceAreaC = 0.0;
+        perimeter = sums[ 1 ];
+        perimeterC = 0.0;
+        corrections = 0;
+    }
+
+    /**
+     * Move vertex v, correcting the sums for the edges before and after it.
+     * A vertex that did not move, like the x of a move that was already
+     * handled with its y, costs nothing.
+     */
+    private void moveVertex( int v, double x, double y ) {
+        if ( xy[ 2 * v ] == x && xy[ 2 * v + 1 ] == y ) {
+            return;
+        }
+        if ( n < 2 ) {
+            xy[ 2 * v ] = x;
+            xy[ 2 * v + 1 ] = y;
+            return;
+        }
+        int before = ( v + n - 1 ) % n;
+        double oldArea = shoelaceTerm( before ) + ( before == v ? 0 : shoelaceTerm( v ) );
+        double oldLength = edges[ before ] + ( before == v ? 0 : edges[ v ] );
+
+        xy[ 2 * v ] = x;
+        xy[ 2 * v + 1 ] = y;
+        edges[ before ] = edgeLength( before );
+        edges[ v ] = edgeLength( v );
+
+        double newArea = shoelaceTerm( before ) + ( before == v ? 0 : shoelaceTerm( v ) );
+        double newLength = edges[ before ] + ( before == v ? 0 : edges[ v ] );
+
+        addToArea( newArea - oldArea );
+        addToPerimeter( newLength - oldLength );
+        corrections++;
+    }
+
+    /**
+     * Twice the signed area of the triangle formed by the reference point and
+     * edge i.
+     */
+    private double shoelaceTerm( int i ) {
+        int j = ( i + 1 ) % n;
+        return ( xy[ 2 * i ] - rx ) * ( xy[ 2 * j + 1 ] - ry )
+                - ( xy[ 2 * j ] - rx ) * ( xy[ 2 * i + 1 ] - ry );
+    }
+
+    private double edgeLength( int i ) {
+        return Geometry.distance( xy, i, ( i + 1 ) % n );
+    }
+
+    private void addToArea( double delta ) {
+        double y = delta + twiceAreaC;
+        double t = twiceArea + y;
+        twiceAreaC = y - ( t - twiceArea );
+        twiceArea = t;
+    }
+
+    private void addToPerimeter( double delta ) {
+        double y = delta + perimeterC;
+        double t = perimeter + y;
+        perimeterC = y - ( t - perimeter );
+        perimeter = t;
+    }
+}
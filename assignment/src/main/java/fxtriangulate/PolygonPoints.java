@@ -0,0 +1,215 @@
+package fxtriangulate;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * The points of the polygon in a primitive buffer, x and y interleaved.
+ *
+ * The buffer is the model of the polygon: all points are set through it, and
+ * the polygon metrics, the triangulations and the point labels read their
+ * coordinates from it. The point list of the JavaFX polygon only follows, so
+ * it is the single place where the coordinates are boxed; it is filled from a
+ * view on the buffer, without an intermediate array of Doubles.
+ *
+ * The buffer is updated before the polygon points change, so listeners of the
+ * polygon points can read the new values from the buffer. Changes made to the
+ * polygon points directly, bypassing the buffer, are copied back into it by a
+ * listener that is registered before any other.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class PolygonPoints {
+
+    private final ObservableList<Double> points;
+
+    private double[] xy = new double[ 0 ];
+    private int size;
+
+    /**
+     * True while the buffer writes to the polygon points, so the copy back is
+     * skipped.
+     */
+    private boolean writing;
+
+    /**
+     * Create the buffer for the points of a polygon. Create it before anything
+     * else that listens to the polygon points.
+     *
+     * @param points the polygon points to keep up to date
+     */
+    PolygonPoints( ObservableList<Double> points ) {
+        this.points = points;
+        points.addListener( this::pointsChanged );
+        copyBack( 0, points.size() );
+    }
+
+    /**
+     * Replace all points.
+     *
+     * @param src    coordinates, x and y interleaved
+     * @param offset of the first x value in src
+     * @param len    number of values to take, twice the number of points
+     */
+    void setAll( double[] src, int offset, int len ) {
+        checkRange( src, offset, len );
+        if ( xy.length < len ) {
+            xy = new double[ len ];
+        }
+        System.arraycopy( src, offset, xy, 0, len );
+        size = len;
+        writing = true;
+        try {
+            points.setAll( new View( 0, len ) );
+        } finally {
+            writing = false;
+        }
+    }
+
+    /**
+     * Append points.
+     *
+     * @param src    coordinates, x and y interleaved
+     * @param offset of the first x value in src
+     * @param len    number of values to take, twice the number of points
+     */
+    void addAll( double[] src, int offset, int len ) {
+        checkRange( src, offset, len );
+        if ( xy.length < size + len ) {
+            xy = Arrays.copyOf( xy, Math.max( size + len, 2 * xy.length ) );
+        }
+        System.arraycopy( src, offset, xy, size, len );
+        int from = size;
+        size += len;
+        writing = true;
+        try {
+            points.addAll( new View( from, size ) );
+        } finally {
+            writing = false;
+        }
+    }
+
+    /**
+     * Move one point. Both coordinates are in the buffer before the polygon
+     * points hear of the first one, so listeners see the whole move at once
+     * and nothing at the second.
+     *
+     * @param vertex index of the point
+     * @param x      new x coordinate
+     * @param y      new y coordinate
+     */
+    void set( int vertex, double x, double y ) {
+        if ( vertex < 0 || 2 * vertex >= size ) {
+            throw new IndexOutOfBoundsException( "no point " + vertex + " in "
+                    + size / 2 + " points" );
+        }
+        xy[ 2 * vertex ] = x;
+        xy[ 2 * vertex + 1 ] = y;
+        writing = true;
+        try {
+            points.set( 2 * vertex, x );
+            points.set( 2 * vertex + 1, y );
+        } finally {
+            writing = false;
+        }
+    }
+
+    /**
+     * Copy changes that did not come through the buffer.
+     */
+    private void pointsChanged( ListChangeListener.Change<? extends Double> c ) {
+        if ( writing ) {
+            return;
+        }
+        boolean sameSize = points.size() == size;
+        while ( sameSize && c.next() ) {
+            copyBack( c.getFrom(), c.getTo() );
+        }
+        if ( !sameSize ) {
+            copyBack( 0, points.size() );
+        }
+    }
+
+    private void copyBack( int from, int to ) {
+        size = points.size();
+        if ( xy.length < size ) {
+            xy = Arrays.copyOf( xy, Math.max( size, 2 * xy.length ) );
+        }
+        for ( int i = from; i < to; i++ ) {
+            xy[ i ] = points.get( i );
+        }
+    }
+
+    private static void checkRange( double[] src, int offset, int len ) {
+        if ( offset < 0 || len < 0 || len % 2 != 0 || offset + len > src.length ) {
+            throw new IllegalArgumentException( "no points at offset " + offset
+                    + ", length " + len + " in an array of " + src.length );
+        }
+    }
+
+    /**
+     * Coordinate i, x of point i / 2 for even i and y for odd i.
+     *
+     * @param i index of the coordinate
+     * @return the coordinate
+     * @throws IndexOutOfBoundsException if i is not below {@link #size()}
+     */
+    double get( int i ) {
+        return xy[ Objects.checkIndex( i, size ) ];
+    }
+
+    /**
+     * Number of coordinates, twice the number of points.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copy of the coordinates.
+     *
+     * @return the points, x and y interleaved
+     */
+    double[] toArray() {
+        return Arrays.copyOf( xy, size );
+    }
+
+    /**
+     * The polygon points this buffer feeds.
+     *
+     * @return the observable points
+     */
+    ObservableList<Double> observable() {
+        return points;
+    }
+
+    /**
+     * Read only list on a range of the buffer, boxing a value only when the
+     * polygon copies it.
+     */
+    private final class View extends AbstractList<Double> implements RandomAccess {
+
+        private final int from, to;
+
+        View( int from, int to ) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Double get( int index ) {
+            return xy[ from + index ];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fxtriangulate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spatial lookup structure for SnapTargets. The triangulator asks the index
+ * for the nearest target on every mouse drag, so implementations should answer
+ * that question without visiting every target.
+ *
+ * An index is built once per set of targets. When all targets move by the same
+ * offset (for instance because the polygon they belong to is dragged), the
+ * index is told so by {@link #translate(double, double)} instead of being
+ * rebuilt. A single target that moves on its own is reported by
+ * {@link #moved(int)}.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public interface SnapIndex {
+
+    /**
+     * (Re)build the index for the given targets. The coordinates of the
+     * targets are read once, at build time.
+     *
+     * @param targets to index
+     */
+    void build( List<? extends SnapTarget> targets );
+
+    /**
+     * Find the target that is nearest to the given coordinate.
+     *
+     * @param x x-value of coordinate
+     * @param y y-value of coordinate
+     * @return the nearest target or empty if the index is empty
+     */
+    Optional<SnapTarget> nearest( double x, double y );
+
+    /**
+     * Find the nearest target that has the given coordinate in its range, as
+     * defined by {@link SnapTarget#inRange(double, double)}.
+     *
+     * @param x x-value of coordinate
+     * @param y y-value of coordinate
+     * @return a target in range or empty if there is none
+     */
+    Optional<SnapTarget> nearby( double x, double y );
+
+    /**
+     * Inform the index that all targets have moved by the given offset.
+     *
+     * @param dx horizontal offset
+     * @param dy vertical offset
+     */
+    void translate( double dx, double dy );
+
+    /**
+     * Inform the index that one target has moved. Its coordinates are read
+     * again.
+     *
+     * @param index position of the target in the list given to
+     *              {@link #build(List)}
+     */
+    void moved( int index );
+}
@@ -29,7 +29,9 @@ public class SnapLabel extends Label implements SnapTarget {
     public SnapLabel focussed( boolean focus ) {
         
         if ( focus ) {
-            getStyleClass().add( "hot" );
+            if ( !getStyleClass().contains( "hot" ) ) {
+                getStyleClass().add( "hot" );
+            }
         } else {
             getStyleClass().remove( "hot" );
         }
@@ -0,0 +1,250 @@
+package fxtriangulate;
+
+import fxtriangulate.geometry.Triangulation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Point2D;
+
+/**
+ * Many triangles that share their vertices, with one binding for the total
+ * area.
+ *
+ * Every edge has a single length binding, no matter how many triangles use
+ * it: the edges are kept by their unordered pair of vertices, with a count of
+ * the triangles using them, like {@link BindingBusiness} caches line lengths.
+ * The area of each triangle follows its three corners and the total area is a
+ * {@link ModifyableSumBinding} over the triangle areas. So moving a vertex
+ * invalidates only the edges at that vertex and the triangles around it, and
+ * the total is corrected for those triangles alone.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class TriangleWorkspace {
+
+    private final BindingBusiness bb = new BindingBusiness();
+
+    private final List<ObservableValue<Point2D>> vertices = new ArrayList<>();
+
+    /**
+     * The triangles by id, null where a triangle was removed.
+     */
+    private final List<Triangle> triangles = new ArrayList<>();
+    private int triangleCount;
+
+    private final Map<Long, Edge> edges = new HashMap<>();
+
+    private final ModifyableSumBinding totalArea = new ModifyableSumBinding();
+
+    /**
+     * Length of the edge between two vertices, with the number of triangles
+     * that use it.
+     */
+    private static final class Edge {
+
+        final DoubleBinding length;
+        int users;
+
+        Edge( DoubleBinding length ) {
+            this.length = length;
+        }
+    }
+
+    private static final class Triangle {
+
+        final int a, b, c;
+        final DoubleBinding area;
+
+        Triangle( int a, int b, int c, DoubleBinding area ) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.area = area;
+        }
+    }
+
+    /**
+     * Add a vertex at the given position.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return the index of the vertex
+     */
+    int addVertex( double x, double y ) {
+        return addVertex( new SimpleObjectProperty<>( new Point2D( x, y ) ) );
+    }
+
+    /**
+     * Add a vertex that follows the given point, for instance the
+     * {@link PointProperty} of a circle.
+     *
+     * @param point to follow
+     * @return the index of the vertex
+     */
+    int addVertex( ObservableValue<Point2D> point ) {
+        vertices.add( point );
+        return vertices.size() - 1;
+    }
+
+    /**
+     * The vertex with the given index.
+     *
+     * @param v index
+     * @return the point of the vertex
+     */
+    ObservableValue<Point2D> vertex( int v ) {
+        return vertices.get( v );
+    }
+
+    /**
+     * Move a vertex that was added by position.
+     *
+     * @param v index
+     * @param x new coordinate
+     * @param y new coordinate
+     * @throws ClassCastException if the vertex follows a point given by the
+     * caller
+     */
+    @SuppressWarnings( "unchecked" )
+    void moveVertex( int v, double x, double y ) {
+        ( (ObjectProperty<Point2D>) vertices.get( v ) ).set( new Point2D( x, y ) );
+    }
+
+    int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Add a triangle on three vertices.
+     *
+     * @param a vertex index
+     * @param b vertex index
+     * @param c vertex index
+     * @return the id of the triangle
+     */
+    int addTriangle( int a, int b, int c ) {
+        Objects.checkIndex( a, vertices.size() );
+        Objects.checkIndex( b, vertices.size() );
+        Objects.checkIndex( c, vertices.size() );
+        if ( a == b || b == c || c == a ) {
+            throw new IllegalArgumentException( "corners must differ: " + a
+                    + ", " + b + ", " + c );
+        }
+        useEdge( a, b );
+        useEdge( b, c );
+        useEdge( c, a );
+        Triangle t = new Triangle( a, b, c, bb.areaBinding( vertices.get( a ),
+                vertices.get( b ), vertices.get( c ) ) );
+        triangles.add( t );
+        triangleCount++;
+        totalArea.add( t.area );
+        return triangles.size() - 1;
+    }
+
+    /**
+     * Add all vertices and triangles of a triangulation.
+     *
+     * @param triangulation to add
+     * @return the index of the first vertex added
+     */
+    int addAll( Triangulation triangulation ) {
+        int first = vertices.size();
+        for ( int v = 0; v < triangulation.vertexCount(); v++ ) {
+            addVertex( triangulation.x( v ), triangulation.y( v ) );
+        }
+        for ( int t = 0; t < triangulation.size(); t++ ) {
+            addTriangle( first + triangulation.corner( t, 0 ),
+                    first + triangulation.corner( t, 1 ),
+                    first + triangulation.corner( t, 2 ) );
+        }
+        return first;
+    }
+
+    /**
+     * Remove a triangle. Edges no other triangle uses are dropped.
+     *
+     * @param id of the triangle
+     */
+    void removeTriangle( int id ) {
+        Triangle t = triangles.get( id );
+        if ( t == null ) {
+            return;
+        }
+        triangles.set( id, null );
+        triangleCount--;
+        totalArea.remove( t.area );
+        t.area.dispose();
+        releaseEdge( t.a, t.b );
+        releaseEdge( t.b, t.c );
+        releaseEdge( t.c, t.a );
+    }
+
+    int triangleCount() {
+        return triangleCount;
+    }
+
+    int edgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * The area of a triangle.
+     *
+     * @param id of the triangle
+     * @return the area binding
+     */
+    DoubleBinding areaBinding( int id ) {
+        return triangles.get( id ).area;
+    }
+
+    /**
+     * The length of the edge between two vertices, in either order.
+     *
+     * @param a vertex index
+     * @param b vertex index
+     * @return the length binding, null if no triangle has that edge
+     */
+    DoubleBinding lengthBinding( int a, int b ) {
+        Edge e = edges.get( key( a, b ) );
+        return e == null ? null : e.length;
+    }
+
+    /**
+     * The summed area of all triangles.
+     *
+     * @return the total area binding
+     */
+    DoubleBinding totalAreaBinding() {
+        return totalArea;
+    }
+
+    private void useEdge( int a, int b ) {
+        Edge e = edges.computeIfAbsent( key( a, b ), k -> new Edge(
+                bb.lengthBinding( vertices.get( a ), vertices.get( b ) ) ) );
+        e.users++;
+    }
+
+    private void releaseEdge( int a, int b ) {
+        Long k = key( a, b );
+        Edge e = edges.get( k );
+        if ( --e.users == 0 ) {
+            edges.remove( k );
+            e.length.dispose();
+        }
+    }
+
+    /**
+     * Key of the unordered pair of vertices.
+     */
+    static long key( int a, int b ) {
+        int lo = Math.min( a, b );
+        int hi = Math.max( a, b );
+        return (long) lo << 32 | hi & 0xFFFF_FFFFL;
+    }
+}
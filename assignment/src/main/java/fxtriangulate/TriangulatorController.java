@@ -2,25 +2,33 @@ package fxtriangulate;
 
 import static javafx.scene.paint.Color.GRAY;
 
+import fxtriangulate.geometry.MonotoneTriangulator;
+import fxtriangulate.geometry.Triangulation;
+import fxtriangulate.metrics.Histogram;
+import fxtriangulate.metrics.Metrics;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Comparator;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.property.DoubleProperty;
-import javafx.collections.ObservableList;
+import javafx.beans.property.ObjectProperty;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
-import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
@@ -64,9 +72,37 @@ public class TriangulatorController extends Group implements Initializable {
     Polygon polygon = new Polygon();
 
     /**
-     * Array of SnapLables for all corner coordinates of the polygon.
+     * The polygon points in a primitive buffer. All points are set through it.
      */
-    SnapLabel[] pointLabels;
+    final PolygonPoints polygonPoints = new PolygonPoints( polygon.getPoints() );
+
+    /**
+     * Area and perimeter of the whole polygon, following its points.
+     */
+    final PolygonMetrics polygonMetrics = new PolygonMetrics( polygonPoints );
+
+    /**
+     * Delaunay triangulation of the polygon vertices, created on first use.
+     */
+    private PolygonDelaunay polygonDelaunay;
+
+    /**
+     * Labels for the vertices of the polygon, only where they can be seen.
+     */
+    private VertexLabels vertexLabels;
+
+    /**
+     * Number of points loadPoints hands to the FX thread at a time.
+     */
+    static final int LOAD_CHUNK = 65_536;
+
+    /**
+     * Latencies of snap queries and of putting points in the polygon, see
+     * {@link Metrics}.
+     */
+    static final Histogram SNAP_NEAREST = Metrics.histogram( "snap.nearest" );
+    static final Histogram SNAP_NEARBY = Metrics.histogram( "snap.nearby" );
+    static final Histogram ADD_POINTS = Metrics.histogram( "points.add" );
 
     /**
      * CenterOfGravity polygon, x and y value as DoubleBinding.
@@ -82,12 +118,21 @@ public class TriangulatorController extends Group implements Initializable {
      * List of SnapTargets.
      */
     private List<SnapTarget> targets = List.of();
-    
+
+    /**
+     * Spatial index over the targets, answers the nearest and nearby queries.
+     */
+    private SnapIndex snapIndex = new GridSnapIndex();
+
+    /**
+     * Do the targets move along with the polygon? True for the point labels.
+     */
+    private boolean targetsFollowPolygon = false;
+
     /**
-     * Comparator to find out which of the SnapTargets is nearest.
+     * The target that currently shows focus, if any.
      */
-    Comparator<SnapTarget> nearestSnapTarget = ( a, b ) -> Double.compare(a.distanceTo(originalMouseXPos, originalMouseYPosY ), b.distanceTo(originalMouseXPos,
-            originalMouseYPosY ) );
+    private SnapTarget focussedTarget;
     
     /**
      * SnapStrategies.
@@ -98,6 +143,23 @@ public class TriangulatorController extends Group implements Initializable {
         SNAP_TO_NEAREST;
     }
 
+    /**
+     * How the polygon is drawn: as a shape node, or on a canvas that only
+     * repaints what changed. The canvas pays off for polygons with many
+     * vertices.
+     */
+    public enum RenderMode {
+        NODES,
+        CANVAS;
+    }
+
+    private RenderMode renderMode = RenderMode.NODES;
+
+    /**
+     * Canvas for RenderMode.CANVAS, created on first use.
+     */
+    private PolygonCanvas polygonCanvas;
+
     /**
      * Map SnapStrategy to Consumer<MouseEvent>.
      */
@@ -159,6 +221,7 @@ public class TriangulatorController extends Group implements Initializable {
         addMouseActions( blueCircle, Cursor.HAND );
         
         addMouseActions( polygon, Cursor.MOVE );
+        addEventHandler( MouseEvent.MOUSE_MOVED, this::mouseMoved );
 
         bb.connectLabelToLine( redLine, redLabel );
         bb.connectLabelToLine( greenLine, greenLabel );
@@ -183,75 +246,234 @@ public class TriangulatorController extends Group implements Initializable {
     }
 
     public void addPoints( Double... points ) {
+        double[] xy = new double[ points.length ];
+        for ( int i = 0; i < xy.length; i++ ) {
+            xy[ i ] = points[ i ];
+        }
+        addPoints( xy, 0, xy.length );
+    }
+
+    /**
+     * Set the polygon points from a primitive buffer. The coordinates are
+     * copied, so the caller may reuse the buffer.
+     *
+     * @param xy     coordinates, x and y interleaved
+     * @param offset of the first x value in xy
+     * @param len    number of values to take, twice the number of points
+     */
+    public void addPoints( double[] xy, int offset, int len ) {
+        double[] points = Arrays.copyOfRange( xy, offset, offset + len );
 
         Platform.runLater( () -> {
-            
-            if ( pointLabels != null ) {
-                getChildren().removeAll( pointLabels );
+            long start = ADD_POINTS.start();
+            polygonPoints.setAll( points, 0, points.length );
+            labelPoints();
+            ADD_POINTS.stop( start );
+        } );
+    }
+
+    /**
+     * Move one vertex of the polygon. Area, perimeter and the Delaunay
+     * triangulation are corrected for that vertex only; the snap targets and
+     * the labels follow.
+     *
+     * @param vertex index of the vertex
+     * @param x      new x coordinate, relative to the polygon
+     * @param y      new y coordinate, relative to the polygon
+     */
+    public void movePoint( int vertex, double x, double y ) {
+        polygonPoints.set( vertex, x, y );
+        if ( targetsFollowPolygon ) {
+            snapIndex.moved( vertex );
+        }
+        if ( vertexLabels != null ) {
+            vertexLabels.moved( vertex );
+        }
+    }
+
+    /**
+     * Load the polygon points from a file without blocking the FX thread.
+     *
+     * The file is read on a background thread, see {@link PointFileReader} for
+     * the formats. The points reach the polygon in chunks, so the polygon
+     * grows while the file is read and the task reports the progress. The
+     * point labels and snap targets are made once all points are in; until
+     * then the polygon has none. A file without points leaves an empty
+     * polygon, as does a cancel before the first chunk; after a cancel the
+     * polygon keeps the points that arrived, without labels or targets.
+     *
+     * @param file to load
+     * @return the running task; its value is the number of points loaded
+     */
+    public Task<Integer> loadPoints( Path file ) {
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws IOException {
+                int loaded = 0;
+                try ( PointFileReader reader = PointFileReader.open( file ) ) {
+                    try {
+                        double[] chunk = new double[ 2 * LOAD_CHUNK ];
+                        int n;
+                        while ( !isCancelled() && ( n = reader.read( chunk ) ) >= 0 ) {
+                            if ( n == 0 ) {
+                                continue;
+                            }
+                            double[] points = Arrays.copyOf( chunk, 2 * n );
+                            boolean first = loaded == 0;
+                            Platform.runLater( () -> {
+                                if ( first ) {
+                                    dropPointTargets();
+                                    polygonPoints.setAll( points, 0, points.length );
+                                } else {
+                                    polygonPoints.addAll( points, 0, points.length );
+                                }
+                            } );
+                            loaded += n;
+                            updateProgress( reader.position(), reader.size() );
+                        }
+                    } finally {
+                        finish( loaded == 0 );
+                    }
+                }
+                return loaded;
             }
-            
-            this.getChildren().remove( polygon );
-            polygon.getPoints().clear();
-            polygon.getPoints().addAll( points );
 
-            ObservableList<Double> polPoints = polygon.getPoints();
-            
-            pointLabels = new SnapLabel[ polPoints.size() / 2 ];
-            
-            char letter = 'D';
-            
-            for ( int i = 0; i < polPoints.size(); i += 2 ) {
-
-                double x = polPoints.get( i + 0 );
-                double y = polPoints.get( i + 1 );
-
-                SnapLabel l = new SnapLabel( "" + letter++ );
-                Tooltip tt = new Tooltip();
-                tt.setText( "x=" + x + "\ny=" + y );
-                l.setTooltip( tt );
-                l.layoutXProperty().bind( polygon.layoutXProperty().add( x ) );
-                l.layoutYProperty().bind( polygon.layoutYProperty().add( y ) );
-                pointLabels[ i / 2 ] = l;
+            /**
+             * Empty the polygon if no chunk reached it, and label the points
+             * unless the load was cancelled. Also runs when the cancel
+             * interrupted the reading; a file that cannot be opened leaves
+             * the polygon as it was.
+             */
+            private void finish( boolean none ) {
+                Platform.runLater( () -> {
+                    if ( none ) {
+                        dropPointTargets();
+                        polygonPoints.setAll( new double[ 0 ], 0, 0 );
+                    }
+                    if ( !isCancelled() ) {
+                        labelPoints();
+                    }
+                } );
             }
-            
+        };
+        Thread loader = new Thread( task, "point loader " + file.getFileName() );
+        loader.setDaemon( true );
+        loader.start();
+        return task;
+    }
+
+    /**
+     * Take the snap targets and labels of the polygon vertices away, before
+     * the vertices they refer to are replaced.
+     */
+    private void dropPointTargets() {
+        if ( targetsFollowPolygon ) {
+            setTargets( List.of() );
+        }
+        if ( vertexLabels != null ) {
+            vertexLabels.clear();
+        }
+    }
+
+    /**
+     * Make the polygon vertices the snap targets and label them. The targets
+     * are no nodes; labels are only made for the vertices in view, see
+     * {@link VertexLabels}.
+     */
+    private void labelPoints() {
+
+        if ( !getChildren().contains( polygon ) ) {
             getChildren().add( polygon );
-            getChildren().addAll( pointLabels );
-            setTargets( List.of( pointLabels ) );
-            polygon.toBack();
-            
-            ImageView pin = new ImageView( new Image( getClass()
-                    .getResourceAsStream( "red_pin.png" ) ) );
-            
-            pin.setLayoutX( 100.0 );
-            pin.setLayoutY( 100.0 );
-            
-            getChildren().add( pin );
-        } );
+        }
+        if ( vertexLabels == null ) {
+            vertexLabels = new VertexLabels( this, polygon, polygonPoints );
+        }
+
+        setTargets( vertexLabels.reset() );
+        targetsFollowPolygon = true;
+        polygon.toBack();
+
+        ImageView pin = new ImageView( new Image( getClass()
+                .getResourceAsStream( "red_pin.png" ) ) );
+
+        pin.setLayoutX( 100.0 );
+        pin.setLayoutY( 100.0 );
+
+        getChildren().add( pin );
     }
 
+    /**
+     * Drag offsets gathered since the last frame, with the node they move and
+     * the last mouse position in local coordinates.
+     */
+    private Node dragged;
+    private double dragOffsetX, dragOffsetY, dragMouseX, dragMouseY;
+
+    /**
+     * Applies the gathered drag once per frame.
+     */
+    private final AnimationTimer dragFrame = new AnimationTimer() {
+        @Override
+        public void handle( long now ) {
+            applyDrag();
+        }
+    };
+
+    /**
+     * Gather the drag offset. The node is moved once per frame, however many
+     * drag events arrive, so the bindings on its position and the snap focus
+     * are recomputed once per frame as well.
+     *
+     * @param ev the drag
+     */
     @FXML
     void mouseDragged( MouseEvent ev ) {
         
-        double offsetX = ev.getSceneX() - originalMouseXPos;
-        double offsetY = ev.getSceneY() - originalMouseYPosY;
         Object source = ev.getSource();
+        if ( source != dragged ) {
+            applyDrag();
+            dragged = (Node) source;
+        }
+        
+        dragOffsetX += ev.getSceneX() - originalMouseXPos;
+        dragOffsetY += ev.getSceneY() - originalMouseYPosY;
+        dragMouseX = ev.getX();
+        dragMouseY = ev.getY();
+        dragFrame.start();
+        
+        originalMouseXPos = ev.getSceneX();
+        originalMouseYPosY = ev.getSceneY();
+    }
+
+    /**
+     * Move the dragged node by the gathered offset.
+     */
+    void applyDrag() {
+        
+        dragFrame.stop();
+        Node source = dragged;
+        double offsetX = dragOffsetX;
+        double offsetY = dragOffsetY;
+        dragged = null;
+        dragOffsetX = 0.0;
+        dragOffsetY = 0.0;
         
         if ( source instanceof Circle ) {
             
-            Circle c = (Circle) ev.getSource();
-            c.setCenterX( c.getCenterX() + offsetX );
-            c.setCenterY( c.getCenterY() + offsetY );
-            makeNearestFocussed( ev );
+            Circle c = (Circle) source;
+            PointProperty.of( c ).moveTo( c.getCenterX() + offsetX,
+                    c.getCenterY() + offsetY );
+            makeNearestFocussed( dragMouseX, dragMouseY );
             
         } else if ( source instanceof Polygon ) {
             
             Polygon pol = (Polygon) source;
             pol.setLayoutX( pol.getLayoutX() + offsetX );
             pol.setLayoutY( pol.getLayoutY() + offsetY );
+            if ( targetsFollowPolygon ) {
+                snapIndex.translate( offsetX, offsetY );
+            }
         }
-        
-        originalMouseXPos = ev.getSceneX();
-        originalMouseYPosY = ev.getSceneY();
     }
 
     @FXML
@@ -267,18 +489,80 @@ public class TriangulatorController extends Group implements Initializable {
 
     @FXML
     void mouseReleased( MouseEvent ev ) {
+        applyDrag();
         snapStrategy.accept( ev );
         
         if ( ev.getSource() instanceof Polygon ) {
             ( (Polygon) ev.getSource() ).toBack();
+            if ( vertexLabels != null ) {
+                vertexLabels.refresh();
+            }
         }
     }
 
+    /**
+     * Label the vertex near the cursor.
+     *
+     * @param ev mouse move anywhere in the triangulator
+     */
+    void mouseMoved( MouseEvent ev ) {
+        if ( vertexLabels == null ) {
+            return;
+        }
+        vertexLabels.hover( nearby( ev.getX(), ev.getY() )
+                .filter( t -> t instanceof PointTarget )
+                .map( t -> ( (PointTarget) t ).vertex() )
+                .orElse( -1 ) );
+    }
+
     public TriangulatorController setSnapStrategy( SnapStrategy snps ) {
         snapStrategy = strats.get( snps );
         return this;
     }
 
+    /**
+     * Choose how the polygon is drawn. In canvas mode the polygon node stays
+     * in place but transparent, so dragging it works as before. The canvas
+     * covers the scene, from the origin of this triangulator.
+     *
+     * @param mode to render in
+     * @return this
+     */
+    public TriangulatorController setRenderMode( RenderMode mode ) {
+        if ( mode == renderMode ) {
+            return this;
+        }
+        renderMode = mode;
+        if ( mode == RenderMode.CANVAS ) {
+            if ( polygonCanvas == null ) {
+                polygonCanvas = new PolygonCanvas( polygon, polygonPoints );
+                sceneProperty().addListener( ( o, was, scene ) -> fitCanvas() );
+            }
+            fitCanvas();
+            getChildren().add( 0, polygonCanvas );
+            polygon.setOpacity( 0.0 );
+            polygonCanvas.setEnabled( true );
+        } else {
+            polygonCanvas.setEnabled( false );
+            getChildren().remove( polygonCanvas );
+            polygon.setOpacity( 1.0 );
+        }
+        return this;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    private void fitCanvas() {
+        polygonCanvas.widthProperty().unbind();
+        polygonCanvas.heightProperty().unbind();
+        if ( getScene() != null ) {
+            polygonCanvas.widthProperty().bind( getScene().widthProperty() );
+            polygonCanvas.heightProperty().bind( getScene().heightProperty() );
+        }
+    }
+
     void snapNearBy( MouseEvent ev ) {
         
         originalMouseXPos = ev.getX();
@@ -287,9 +571,7 @@ public class TriangulatorController extends Group implements Initializable {
         
         if ( source instanceof Circle ) {
             Circle c = (Circle) ( ev.getSource() );
-            targets.stream()
-                    .filter(t -> t.inRange(originalMouseXPos, originalMouseYPosY ) )
-                    .findFirst()
+            nearby( originalMouseXPos, originalMouseYPosY )
                     .ifPresentOrElse(
                             (t) -> snapToTarget( t, c ),
                             ( ) -> System.out.println("no snap target nearby") 
@@ -305,8 +587,7 @@ public class TriangulatorController extends Group implements Initializable {
 
         if ( source instanceof Circle ) {
             Circle c = (Circle) ( ev.getSource() );
-            targets.stream()
-                    .min(nearestSnapTarget )
+            nearest( originalMouseXPos, originalMouseYPosY )
                     .ifPresentOrElse( 
                             (t) -> snapToTarget( t, c ),
                             ( ) -> System.out.println("no snap target nearby")
@@ -315,30 +596,75 @@ public class TriangulatorController extends Group implements Initializable {
     }
 
     void makeNearestFocussed( MouseEvent ev ) {
+        makeNearestFocussed( ev.getX(), ev.getY() );
+    }
+
+    void makeNearestFocussed( double x, double y ) {
         
-        originalMouseXPos = ev.getX();
-        originalMouseYPosY = ev.getY();
+        SnapTarget nearest = nearest( x, y )
+                .orElse( null );
         
-        targets.stream()
-                .peek( t -> t.focussed( false ))
-                .min( nearestSnapTarget )
-                .ifPresent( t -> t.focussed( true ) );
+        if ( nearest != focussedTarget ) {
+            if ( focussedTarget != null ) {
+                focussedTarget.focussed( false );
+            }
+            if ( nearest != null ) {
+                nearest.focussed( true );
+            }
+            focussedTarget = nearest;
+        }
+    }
+
+    /**
+     * Ask the snap index for the nearest target, timed.
+     */
+    private Optional<SnapTarget> nearest( double x, double y ) {
+        long start = SNAP_NEAREST.start();
+        Optional<SnapTarget> nearest = snapIndex.nearest( x, y );
+        SNAP_NEAREST.stop( start );
+        return nearest;
+    }
+
+    /**
+     * Ask the snap index for a target in range, timed.
+     */
+    private Optional<SnapTarget> nearby( double x, double y ) {
+        long start = SNAP_NEARBY.start();
+        Optional<SnapTarget> nearby = snapIndex.nearby( x, y );
+        SNAP_NEARBY.stop( start );
+        return nearby;
     }
 
     void snapToTarget( SnapTarget t, Circle c ) {
         
-        c.setCenterX( t.getLayoutX() );
-        c.setCenterY( t.getLayoutY() );
+        PointProperty.of( c ).moveTo( t.getLayoutX(), t.getLayoutY() );
         
         System.out.println( "snapped " + c.getId() + " at (" + t.getLayoutX()
                 + "," + t.getLayoutY() + ")" );
         
-        Node n = ( (Node) t );
-        n.setStyle( "-fx-font-weight:bold" );
+        if ( t instanceof Node ) {
+            ( (Node) t ).setStyle( "-fx-font-weight:bold" );
+        }
     }
 
     public void setTargets( List<SnapTarget> targets ) {
         this.targets = targets;
+        this.targetsFollowPolygon = false;
+        this.focussedTarget = null;
+        snapIndex.build( targets );
+    }
+
+    /**
+     * Replace the spatial index used to find snap targets. The index is built
+     * for the current targets.
+     *
+     * @param snapIndex to use
+     * @return this
+     */
+    public TriangulatorController setSnapIndex( SnapIndex snapIndex ) {
+        this.snapIndex = snapIndex;
+        snapIndex.build( targets );
+        return this;
     }
 
     private void addMouseActions( Node n, Cursor cursor ) {
@@ -352,6 +678,49 @@ public class TriangulatorController extends Group implements Initializable {
         return bb.areaBinding();
     }
 
+    /**
+     * The area of the polygon loaded with addPoints, computed directly from
+     * its points.
+     *
+     * @return the polygon area binding
+     */
+    public DoubleBinding polygonAreaBinding() {
+        return polygonMetrics.areaBinding();
+    }
+
+    /**
+     * The border length of the polygon loaded with addPoints.
+     *
+     * @return the polygon perimeter binding
+     */
+    public DoubleBinding polygonPerimeterBinding() {
+        return polygonMetrics.perimeterBinding();
+    }
+
+    /**
+     * Triangulate the polygon loaded with addPoints automatically.
+     *
+     * @return the triangulation of the current polygon
+     */
+    public Triangulation triangulate() {
+        double[] xy = polygonPoints.toArray();
+        return MonotoneTriangulator.triangulate( xy, 0, xy.length / 2 );
+    }
+
+    /**
+     * Delaunay triangulation of the vertices of the polygon loaded with
+     * addPoints. After the first call the triangulation follows the edits of
+     * the polygon incrementally.
+     *
+     * @return three polygon vertex indices per triangle
+     */
+    public int[] delaunayTriangles() {
+        if ( polygonDelaunay == null ) {
+            polygonDelaunay = new PolygonDelaunay( polygonPoints );
+        }
+        return polygonDelaunay.triangles();
+    }
+
     public DoubleBinding lengthActiveLines() {
         return bb.activeLinesLength();
     }
@@ -368,6 +737,33 @@ public class TriangulatorController extends Group implements Initializable {
         return targets;
     }
 
+    /**
+     * Center of the red corner as one point, so a move is one change.
+     *
+     * @return the red point
+     */
+    public ObjectProperty<Point2D> redPointProperty() {
+        return PointProperty.of( redCircle );
+    }
+
+    /**
+     * Center of the green corner as one point.
+     *
+     * @return the green point
+     */
+    public ObjectProperty<Point2D> greenPointProperty() {
+        return PointProperty.of( greenCircle );
+    }
+
+    /**
+     * Center of the blue corner as one point.
+     *
+     * @return the blue point
+     */
+    public ObjectProperty<Point2D> bluePointProperty() {
+        return PointProperty.of( blueCircle );
+    }
+
     public DoubleProperty redXProperty() {
         return this.redCircle.centerXProperty();
     }
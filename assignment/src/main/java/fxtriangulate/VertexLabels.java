@@ -0,0 +1,331 @@
+package fxtriangulate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.control.Tooltip;
+import javafx.scene.shape.Polygon;
+import javafx.scene.transform.Transform;
+
+/**
+ * Level of detail for the vertex labels of the polygon.
+ *
+ * Instead of a label node per vertex there is a small pool of labels, placed
+ * at the vertices that deserve one:
+ * <ul>
+ * <li>vertices in the visible part of the scene, at most one per
+ * {@link #CELL} by {@link #CELL} square on screen, so dense parts of the
+ * polygon show a label per area instead of a pile of overlapping labels, and
+ * never more than {@link #MAX_VISIBLE} of them. The square follows the scale
+ * of the parent, so zooming in shows more labels;</li>
+ * <li>the vertex nearest to the cursor, and the vertex that has focus while a
+ * corner is dragged.</li>
+ * </ul>
+ * Tooltips are only made when the cursor enters a label.
+ *
+ * The snap targets of the vertices are {@link PointTarget}s, which are no
+ * nodes at all.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+final class VertexLabels {
+
+    /**
+     * Size of the square that gets at most one label, in scene pixels.
+     */
+    static final double CELL = 40.0;
+
+    /**
+     * Maximum number of labels for the visible vertices.
+     */
+    static final int MAX_VISIBLE = 200;
+
+    private final Group parent;
+    private final Polygon polygon;
+    private final PolygonPoints points;
+
+    private final Map<Integer, SnapLabel> shown = new HashMap<>();
+    private final ArrayDeque<SnapLabel> pool = new ArrayDeque<>();
+    /**
+     * The visible vertices that get a label, with the square they label.
+     */
+    private final Map<Integer, Long> inView = new HashMap<>();
+    private final Set<Long> cells = new HashSet<>();
+    private int hovered = -1;
+    private int focussed = -1;
+
+    /**
+     * Size of the label square in the coordinates of the parent.
+     */
+    private double cell = CELL;
+
+    private final ChangeListener<Number> viewResized = ( o, was, is ) -> refresh();
+
+    /**
+     * Create the labels of a polygon in its parent.
+     *
+     * @param parent  of the polygon, gets the labels as children
+     * @param polygon whose vertices to label
+     * @param points  the points of the polygon
+     */
+    VertexLabels( Group parent, Polygon polygon, PolygonPoints points ) {
+        this.parent = parent;
+        this.polygon = polygon;
+        this.points = points;
+        polygon.layoutXProperty().addListener( ( o, was, is ) -> place() );
+        polygon.layoutYProperty().addListener( ( o, was, is ) -> place() );
+        parent.sceneProperty().addListener( ( o, was, scene ) -> {
+            unwatch( was );
+            watch( scene );
+            refresh();
+        } );
+        parent.localToSceneTransformProperty().addListener( ( o, was, is ) -> {
+            if ( cellSize( is ) != cell ) {
+                refresh();
+            }
+        } );
+        watch( parent.getScene() );
+    }
+
+    private void watch( Scene scene ) {
+        if ( scene != null ) {
+            scene.widthProperty().addListener( viewResized );
+            scene.heightProperty().addListener( viewResized );
+        }
+    }
+
+    private void unwatch( Scene scene ) {
+        if ( scene != null ) {
+            scene.widthProperty().removeListener( viewResized );
+            scene.heightProperty().removeListener( viewResized );
+        }
+    }
+
+    /**
+     * Size of a square of CELL scene pixels in local coordinates.
+     *
+     * @param t local to scene transform of the parent
+     * @return the size
+     */
+    static double cellSize( Transform t ) {
+        double scale = Math.sqrt( Math.abs( t.getMxx() * t.getMyy()
+                - t.getMxy() * t.getMyx() ) );
+        return scale > 0 ? CELL / scale : CELL;
+    }
+
+    /**
+     * Start over for new polygon points.
+     *
+     * @return a snap target for every vertex
+     */
+    List<SnapTarget> reset() {
+        hovered = -1;
+        focussed = -1;
+        int n = points.size() / 2;
+        List<SnapTarget> targets = new ArrayList<>( n );
+        for ( int v = 0; v < n; v++ ) {
+            targets.add( new PointTarget( this, v ) );
+        }
+        refresh();
+        return targets;
+    }
+
+    /**
+     * Take all labels away, while the points are being replaced.
+     */
+    void clear() {
+        hovered = -1;
+        focussed = -1;
+        inView.clear();
+        cells.clear();
+        update();
+    }
+
+    /**
+     * Choose the labels for the visible vertices again, after the polygon or
+     * the view moved.
+     */
+    void refresh() {
+        inView.clear();
+        cells.clear();
+        cell = cellSize( parent.getLocalToSceneTransform() );
+        Bounds view = view();
+        int n = points.size() / 2;
+        for ( int v = 0; v < n && inView.size() < MAX_VISIBLE; v++ ) {
+            label( v, view );
+        }
+        update();
+        place();
+    }
+
+    /**
+     * Follow one moved vertex: only its own square is reconsidered. The
+     * square it leaves stays without a label until the next refresh.
+     *
+     * @param vertex that moved
+     */
+    void moved( int vertex ) {
+        Long was = inView.remove( vertex );
+        if ( was != null ) {
+            cells.remove( was );
+        }
+        if ( inView.size() < MAX_VISIBLE ) {
+            label( vertex, view() );
+        }
+        update();
+        SnapLabel l = shown.get( vertex );
+        if ( l != null ) {
+            l.setLayoutX( x( vertex ) );
+            l.setLayoutY( y( vertex ) );
+        }
+    }
+
+    /**
+     * Give a vertex a label if it is in view and its square has none yet.
+     */
+    private void label( int vertex, Bounds view ) {
+        double x = x( vertex );
+        double y = y( vertex );
+        if ( view != null && !view.contains( x, y ) ) {
+            return;
+        }
+        long key = ( (long) Math.floor( x / cell ) << 32 )
+                ^ ( (long) Math.floor( y / cell ) & 0xffffffffL );
+        if ( cells.add( key ) ) {
+            inView.put( vertex, key );
+        }
+    }
+
+    /**
+     * The part of the parent that is visible in the scene, null if the parent
+     * is not shown yet.
+     */
+    private Bounds view() {
+        Scene scene = parent.getScene();
+        if ( scene == null ) {
+            return null;
+        }
+        return parent.sceneToLocal( new BoundingBox( 0, 0, scene.getWidth(),
+                scene.getHeight() ) );
+    }
+
+    /**
+     * Show the label of the vertex near the cursor.
+     *
+     * @param vertex to label, -1 for none
+     */
+    void hover( int vertex ) {
+        if ( vertex != hovered ) {
+            hovered = vertex;
+            update();
+        }
+    }
+
+    /**
+     * Give a vertex focus or take it away.
+     *
+     * @param vertex to (un)focus
+     * @param focus  true to focus
+     */
+    void focus( int vertex, boolean focus ) {
+        if ( focus ) {
+            focussed = vertex;
+        } else if ( focussed == vertex ) {
+            focussed = -1;
+        }
+        update();
+    }
+
+    /**
+     * Bring the label nodes in line with the vertices that deserve a label.
+     */
+    private void update() {
+        Set<Integer> wanted = new HashSet<>( inView.keySet() );
+        if ( hovered >= 0 ) {
+            wanted.add( hovered );
+        }
+        if ( focussed >= 0 ) {
+            wanted.add( focussed );
+        }
+        shown.entrySet().removeIf( e -> {
+            if ( wanted.contains( e.getKey() ) ) {
+                return false;
+            }
+            release( e.getValue() );
+            return true;
+        } );
+        for ( int v : wanted ) {
+            SnapLabel l = shown.computeIfAbsent( v, this::obtain );
+            l.focussed( v == focussed );
+        }
+    }
+
+    private SnapLabel obtain( int vertex ) {
+        SnapLabel l = pool.poll();
+        if ( l == null ) {
+            SnapLabel created = new SnapLabel( "" );
+            created.setOnMouseEntered( e -> {
+                if ( created.getTooltip() == null ) {
+                    created.setTooltip( new Tooltip() );
+                }
+                int v = (Integer) created.getUserData();
+                created.getTooltip().setText( "x=" + points.get( 2 * v )
+                        + "\ny=" + points.get( 2 * v + 1 ) );
+            } );
+            parent.getChildren().add( created );
+            l = created;
+        }
+        l.setUserData( vertex );
+        l.setText( name( vertex ) );
+        l.setLayoutX( x( vertex ) );
+        l.setLayoutY( y( vertex ) );
+        l.setVisible( true );
+        l.toFront();
+        return l;
+    }
+
+    private void release( SnapLabel l ) {
+        l.focussed( false );
+        l.setVisible( false );
+        pool.push( l );
+    }
+
+    /**
+     * Follow the polygon with the labels that are shown.
+     */
+    private void place() {
+        shown.forEach( ( v, l ) -> {
+            l.setLayoutX( x( v ) );
+            l.setLayoutY( y( v ) );
+        } );
+    }
+
+    double x( int vertex ) {
+        return polygon.getLayoutX() + points.get( 2 * vertex );
+    }
+
+    double y( int vertex ) {
+        return polygon.getLayoutY() + points.get( 2 * vertex + 1 );
+    }
+
+    /**
+     * Name of a vertex: the letters after the triangle corners A, B and C,
+     * then numbers.
+     *
+     * @param vertex index
+     * @return the name
+     */
+    static String name( int vertex ) {
+        return vertex <= 'Z' - 'D' ? String.valueOf( (char) ( 'D' + vertex ) )
+                : Integer.toString( vertex );
+    }
+}
@@ -0,0 +1,125 @@
+package fxtriangulate.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of interleaved x,y coordinates in a primitive double array.
+ * Avoids the boxing of a {@code List<Double>} for large point sets.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class CoordinateBuffer {
+
+    private double[] xy;
+    private int size;
+
+    public CoordinateBuffer() {
+        this( 16 );
+    }
+
+    /**
+     * Create a buffer.
+     *
+     * @param vertexCapacity initial number of vertices that fit
+     */
+    public CoordinateBuffer( int vertexCapacity ) {
+        xy = new double[ Math.max( 2, 2 * vertexCapacity ) ];
+    }
+
+    /**
+     * Append a vertex.
+     *
+     * @param x of vertex
+     * @param y of vertex
+     * @return this
+     */
+    public CoordinateBuffer add( double x, double y ) {
+        ensureCapacity( size + 1 );
+        xy[ 2 * size ] = x;
+        xy[ 2 * size + 1 ] = y;
+        size++;
+        return this;
+    }
+
+    /**
+     * Append vertices from an interleaved array.
+     *
+     * @param src    array with coordinates
+     * @param offset of first x value in src
+     * @param count  number of vertices to append
+     * @return this
+     */
+    public CoordinateBuffer addAll( double[] src, int offset, int count ) {
+        ensureCapacity( size + count );
+        System.arraycopy( src, offset, xy, 2 * size, 2 * count );
+        size += count;
+        return this;
+    }
+
+    /**
+     * Replace the coordinates of a vertex.
+     *
+     * @param i index of vertex
+     * @param x new x
+     * @param y new y
+     */
+    public void set( int i, double x, double y ) {
+        checkIndex( i );
+        xy[ 2 * i ] = x;
+        xy[ 2 * i + 1 ] = y;
+    }
+
+    public double x( int i ) {
+        checkIndex( i );
+        return xy[ 2 * i ];
+    }
+
+    public double y( int i ) {
+        checkIndex( i );
+        return xy[ 2 * i + 1 ];
+    }
+
+    /**
+     * Number of vertices.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * The backing array. Only the first 2 * size() values are meaningful, and
+     * the array is replaced when the buffer grows.
+     *
+     * @return the backing array
+     */
+    public double[] array() {
+        return xy;
+    }
+
+    /**
+     * Copy of the meaningful part of the buffer.
+     *
+     * @return the coordinates as a new array of length 2 * size()
+     */
+    public double[] toArray() {
+        return Arrays.copyOf( xy, 2 * size );
+    }
+
+    private void ensureCapacity( int vertices ) {
+        if ( 2 * vertices > xy.length ) {
+            xy = Arrays.copyOf( xy, Math.max( 2 * vertices, xy.length * 2 ) );
+        }
+    }
+
+    private void checkIndex( int i ) {
+        if ( i < 0 || i >= size ) {
+            throw new IndexOutOfBoundsException( "vertex " + i + " of " + size );
+        }
+    }
+}
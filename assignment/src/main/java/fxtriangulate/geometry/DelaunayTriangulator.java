@@ -0,0 +1,681 @@
+package fxtriangulate.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delaunay triangulation of a changing set of points.
+ *
+ * Points can be inserted, removed and moved one at a time. Each edit only
+ * touches the triangles around the point: an insertion splits the triangle
+ * containing the point and restores the Delaunay property with edge flips, a
+ * removal re-triangulates the star shaped cavity that the point leaves
+ * behind. A move is a removal followed by an insertion.
+ *
+ * The triangulation starts with a super triangle that encloses all points. Its
+ * corners lie at infinity, in three fixed directions, and both the orientation
+ * and the in-circle test treat them that way. So any point fits in the super
+ * triangle and the triangles of the real points always cover their convex
+ * hull.
+ *
+ * Triangles are stored in flat arrays: corners in counter clockwise order and
+ * for every edge k (from corner k to corner k+1) the neighbouring triangle.
+ * Point ids are stable: an id stays valid until the point is removed. Inserting
+ * a point on top of an existing one is allowed; the duplicate only takes part
+ * in the triangulation when the original is removed.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class DelaunayTriangulator {
+
+    /**
+     * Number of corners of the super triangle, which take the first vertex
+     * slots. A public id is the vertex slot minus this number.
+     */
+    private static final int SUPER = 3;
+
+    // vertices
+    private double[] vx = new double[ 64 ], vy = new double[ 64 ];
+    private int[] vertexTriangle = new int[ 64 ];
+    private int[] shadowOf = new int[ 64 ];
+    private int[] firstShadow = new int[ 64 ];
+    private int[] nextShadow = new int[ 64 ];
+    private boolean[] alive = new boolean[ 64 ];
+    private int vertexSlots = SUPER;
+    private int pointCount;
+
+    // triangles
+    private int[] corners = new int[ 192 ];
+    private int[] neighbours = new int[ 192 ];
+    private int triangleSlots;
+    private int[] free = new int[ 16 ];
+    private int freeCount;
+    private int last = -1;
+
+    private final IntStack pending = new IntStack();
+
+    /**
+     * Create an empty triangulation, consisting of the super triangle only.
+     */
+    public DelaunayTriangulator() {
+        for ( int s = 0; s < SUPER; s++ ) {
+            double angle = Math.toRadians( 97 + 120 * s );
+            vx[ s ] = Math.cos( angle );
+            vy[ s ] = Math.sin( angle );
+        }
+        last = newTriangle();
+        set( last, 0, 1, 2, -1, -1, -1 );
+    }
+
+    /**
+     * Number of points in the triangulation, duplicates included.
+     *
+     * @return the point count
+     */
+    public int size() {
+        return pointCount;
+    }
+
+    /**
+     * Insert a point.
+     *
+     * @param x of the point
+     * @param y of the point
+     * @return the id of the point
+     */
+    public int insert( double x, double y ) {
+        int v = newVertex( x, y );
+        pointCount++;
+        place( v );
+        return v - SUPER;
+    }
+
+    /**
+     * Remove a point.
+     *
+     * @param id of the point
+     * @throws IllegalArgumentException if there is no point with this id
+     */
+    public void remove( int id ) {
+        int v = checkId( id );
+        unplace( v );
+        alive[ v ] = false;
+        pointCount--;
+    }
+
+    /**
+     * Move a point, keeping its id.
+     *
+     * @param id of the point
+     * @param x  new x
+     * @param y  new y
+     * @throws IllegalArgumentException if there is no point with this id
+     */
+    public void move( int id, double x, double y ) {
+        int v = checkId( id );
+        if ( vx[ v ] == x && vy[ v ] == y ) {
+            return;
+        }
+        unplace( v );
+        vx[ v ] = x;
+        vy[ v ] = y;
+        place( v );
+    }
+
+    /**
+     * The x coordinate of a point.
+     *
+     * @param id of the point
+     * @return x
+     */
+    public double x( int id ) {
+        return vx[ checkId( id ) ];
+    }
+
+    /**
+     * The y coordinate of a point.
+     *
+     * @param id of the point
+     * @return y
+     */
+    public double y( int id ) {
+        return vy[ checkId( id ) ];
+    }
+
+    /**
+     * The triangles between the points, three point ids per triangle, in
+     * counter clockwise order.
+     *
+     * @return a new array with the triangles
+     */
+    public int[] triangles() {
+        int[] result = new int[ 3 * Math.max( 2 * pointCount, 1 ) ];
+        int count = 0;
+        for ( int t = 0; t < triangleSlots; t++ ) {
+            int a = corners[ 3 * t ];
+            if ( a >= SUPER && corners[ 3 * t + 1 ] >= SUPER
+                    && corners[ 3 * t + 2 ] >= SUPER ) {
+                result[ count++ ] = a - SUPER;
+                result[ count++ ] = corners[ 3 * t + 1 ] - SUPER;
+                result[ count++ ] = corners[ 3 * t + 2 ] - SUPER;
+            }
+        }
+        return Arrays.copyOf( result, count );
+    }
+
+    private int checkId( int id ) {
+        int v = id + SUPER;
+        if ( id < 0 || v >= vertexSlots || !alive[ v ] ) {
+            throw new IllegalArgumentException( "no point with id " + id );
+        }
+        return v;
+    }
+
+    // ---------------------------------------------------------------------
+    // insertion
+    // ---------------------------------------------------------------------
+
+    /**
+     * Put vertex v into the triangulation.
+     */
+    private void place( int v ) {
+        shadowOf[ v ] = -1;
+        firstShadow[ v ] = -1;
+        int t = locate( vx[ v ], vy[ v ] );
+        for ( int k = 0; k < 3; k++ ) {
+            int c = corners[ 3 * t + k ];
+            if ( c >= SUPER && vx[ c ] == vx[ v ] && vy[ c ] == vy[ v ] ) {
+                addShadow( c, v );
+                return;
+            }
+        }
+        int onEdge = -1;
+        for ( int k = 0; k < 3; k++ ) {
+            if ( orient( corners[ 3 * t + k ], corners[ 3 * t + ( k + 1 ) % 3 ], v ) == 0 ) {
+                onEdge = k;
+            }
+        }
+        if ( onEdge < 0 ) {
+            splitTriangle( t, v );
+        } else {
+            splitEdge( t, onEdge, v );
+        }
+        legalize();
+    }
+
+    /**
+     * Walk from the last touched triangle towards the point.
+     */
+    private int locate( double x, double y ) {
+        int t = last;
+        int start = 0;
+        walk:
+        for ( int steps = 0; steps < 4 * triangleSlots + 16; steps++ ) {
+            for ( int i = 0; i < 3; i++ ) {
+                int k = ( start + i ) % 3;
+                int a = corners[ 3 * t + k ];
+                int b = corners[ 3 * t + ( k + 1 ) % 3 ];
+                if ( orient( a, b, x, y ) < 0 ) {
+                    t = neighbours[ 3 * t + k ];
+                    start = ( start + 1 ) % 3;
+                    continue walk;
+                }
+            }
+            return t;
+        }
+        throw new IllegalStateException( "point location did not terminate" );
+    }
+
+    /**
+     * Split triangle t into three triangles around v.
+     */
+    private void splitTriangle( int t, int v ) {
+        int a = corners[ 3 * t ], b = corners[ 3 * t + 1 ], c = corners[ 3 * t + 2 ];
+        int na = neighbours[ 3 * t ], nb = neighbours[ 3 * t + 1 ],
+                nc = neighbours[ 3 * t + 2 ];
+        int t1 = newTriangle();
+        int t2 = newTriangle();
+        set( t, a, b, v, na, t1, t2 );
+        set( t1, b, c, v, nb, t2, t );
+        set( t2, c, a, v, nc, t, t1 );
+        replaceNeighbour( nb, t, t1 );
+        replaceNeighbour( nc, t, t2 );
+        pending.push( t, 0 );
+        pending.push( t1, 0 );
+        pending.push( t2, 0 );
+    }
+
+    /**
+     * Split edge k of triangle t and the triangle on the other side of it
+     * into four triangles around v, which lies on that edge.
+     */
+    private void splitEdge( int t, int k, int v ) {
+        int a = corners[ 3 * t + k ];
+        int b = corners[ 3 * t + ( k + 1 ) % 3 ];
+        int c = corners[ 3 * t + ( k + 2 ) % 3 ];
+        int nbc = neighbours[ 3 * t + ( k + 1 ) % 3 ];
+        int nca = neighbours[ 3 * t + ( k + 2 ) % 3 ];
+        int o = neighbours[ 3 * t + k ];
+        int j = edgeIndex( o, b, a );
+        int d = corners[ 3 * o + ( j + 2 ) % 3 ];
+        int nad = neighbours[ 3 * o + ( j + 1 ) % 3 ];
+        int ndb = neighbours[ 3 * o + ( j + 2 ) % 3 ];
+
+        int t2 = newTriangle();
+        int t4 = newTriangle();
+        set( t, c, a, v, nca, t4, t2 );
+        set( t2, c, v, b, t, o, nbc );
+        set( o, d, b, v, ndb, t2, t4 );
+        set( t4, d, v, a, o, t, nad );
+        replaceNeighbour( nbc, t, t2 );
+        replaceNeighbour( nad, o, t4 );
+        pending.push( t, 0 );
+        pending.push( t2, 2 );
+        pending.push( o, 0 );
+        pending.push( t4, 2 );
+    }
+
+    /**
+     * Flip edges until all edges on the pending stack are Delaunay. Each
+     * pending entry is a triangle and the index of the edge opposite to the
+     * newly inserted vertex.
+     */
+    private void legalize() {
+        while ( !pending.isEmpty() ) {
+            int k = pending.popIndex();
+            int t = pending.popTriangle();
+            int o = neighbours[ 3 * t + k ];
+            if ( o < 0 ) {
+                continue;
+            }
+            int a = corners[ 3 * t + k ];
+            int b = corners[ 3 * t + ( k + 1 ) % 3 ];
+            int p = corners[ 3 * t + ( k + 2 ) % 3 ];
+            if ( a < SUPER && b < SUPER ) {
+                continue;
+            }
+            int j = edgeIndex( o, b, a );
+            if ( !inCircle( corners[ 3 * o ], corners[ 3 * o + 1 ],
+                    corners[ 3 * o + 2 ], p ) ) {
+                continue;
+            }
+            int d = corners[ 3 * o + ( j + 2 ) % 3 ];
+            int nbp = neighbours[ 3 * t + ( k + 1 ) % 3 ];
+            int npa = neighbours[ 3 * t + ( k + 2 ) % 3 ];
+            int nad = neighbours[ 3 * o + ( j + 1 ) % 3 ];
+            int ndb = neighbours[ 3 * o + ( j + 2 ) % 3 ];
+            set( t, p, a, d, npa, nad, o );
+            set( o, p, d, b, t, ndb, nbp );
+            replaceNeighbour( nad, o, t );
+            replaceNeighbour( nbp, t, o );
+            pending.push( t, 1 );
+            pending.push( o, 1 );
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // removal
+    // ---------------------------------------------------------------------
+
+    /**
+     * Take vertex v out of the triangulation. If v has duplicates, one of
+     * them takes its place.
+     */
+    private void unplace( int v ) {
+        if ( shadowOf[ v ] >= 0 ) {
+            removeShadow( shadowOf[ v ], v );
+            return;
+        }
+        int s = firstShadow[ v ];
+        if ( s >= 0 ) {
+            promote( v, s );
+            return;
+        }
+        removeFromMesh( v );
+    }
+
+    private void removeFromMesh( int v ) {
+        // collect the star of v, counter clockwise
+        List<Integer> ring = new ArrayList<>();
+        List<Integer> outer = new ArrayList<>();
+        List<Integer> star = new ArrayList<>();
+        int t = vertexTriangle[ v ];
+        do {
+            int i = cornerIndex( t, v );
+            ring.add( corners[ 3 * t + ( i + 1 ) % 3 ] );
+            outer.add( neighbours[ 3 * t + ( i + 1 ) % 3 ] );
+            star.add( t );
+            t = neighbours[ 3 * t + ( i + 2 ) % 3 ];
+        } while ( t != vertexTriangle[ v ] );
+
+        // boundary edges of the cavity, keyed by their vertices
+        Map<Long, Integer> open = new HashMap<>();
+        int k = ring.size();
+        for ( int i = 0; i < k; i++ ) {
+            open.put( edgeKey( ring.get( i ), ring.get( ( i + 1 ) % k ) ),
+                    outer.get( i ) );
+        }
+        for ( int dead : star ) {
+            freeTriangle( dead );
+        }
+        vertexTriangle[ v ] = -1;
+
+        // clip Delaunay ears off the cavity
+        List<Integer> polygon = new ArrayList<>( ring );
+        while ( polygon.size() > 3 ) {
+            int ear = findEar( polygon );
+            int m = polygon.size();
+            addCavityTriangle( polygon.get( ( ear + m - 1 ) % m ),
+                    polygon.get( ear ), polygon.get( ( ear + 1 ) % m ), open );
+            polygon.remove( ear );
+        }
+        addCavityTriangle( polygon.get( 0 ), polygon.get( 1 ), polygon.get( 2 ), open );
+    }
+
+    /**
+     * Find a corner of the cavity polygon whose triangle with its neighbours
+     * is convex and has no other cavity vertex in its circumcircle.
+     */
+    private int findEar( List<Integer> polygon ) {
+        int m = polygon.size();
+        int convex = -1;
+        for ( int i = 0; i < m; i++ ) {
+            int a = polygon.get( ( i + m - 1 ) % m );
+            int b = polygon.get( i );
+            int c = polygon.get( ( i + 1 ) % m );
+            if ( orient( a, b, c ) <= 0 ) {
+                continue;
+            }
+            if ( convex < 0 ) {
+                convex = i;
+            }
+            boolean empty = true;
+            for ( int j = 0; j < m && empty; j++ ) {
+                int p = polygon.get( j );
+                empty = p == a || p == b || p == c || !inCircle( a, b, c, p );
+            }
+            if ( empty ) {
+                return i;
+            }
+        }
+        return Math.max( convex, 0 );
+    }
+
+    /**
+     * Add a triangle inside the cavity and connect it to the triangles around
+     * it.
+     */
+    private void addCavityTriangle( int a, int b, int c, Map<Long, Integer> open ) {
+        int t = newTriangle();
+        set( t, a, b, c, -1, -1, -1 );
+        for ( int k = 0; k < 3; k++ ) {
+            int from = corners[ 3 * t + k ];
+            int to = corners[ 3 * t + ( k + 1 ) % 3 ];
+            Integer twin = open.remove( edgeKey( from, to ) );
+            if ( twin == null ) {
+                open.put( edgeKey( to, from ), t );
+            } else {
+                neighbours[ 3 * t + k ] = twin;
+                if ( twin >= 0 ) {
+                    neighbours[ 3 * twin + edgeIndex( twin, to, from ) ] = t;
+                }
+            }
+        }
+        last = t;
+    }
+
+    // ---------------------------------------------------------------------
+    // duplicates
+    // ---------------------------------------------------------------------
+
+    private void addShadow( int original, int v ) {
+        shadowOf[ v ] = original;
+        vertexTriangle[ v ] = -1;
+        nextShadow[ v ] = firstShadow[ original ];
+        firstShadow[ original ] = v;
+    }
+
+    private void removeShadow( int original, int v ) {
+        if ( firstShadow[ original ] == v ) {
+            firstShadow[ original ] = nextShadow[ v ];
+        } else {
+            int s = firstShadow[ original ];
+            while ( nextShadow[ s ] != v ) {
+                s = nextShadow[ s ];
+            }
+            nextShadow[ s ] = nextShadow[ v ];
+        }
+        shadowOf[ v ] = -1;
+    }
+
+    /**
+     * Let duplicate s take the place of v in the triangulation.
+     */
+    private void promote( int v, int s ) {
+        int start = vertexTriangle[ v ];
+        int t = start;
+        do {
+            int i = cornerIndex( t, v );
+            corners[ 3 * t + i ] = s;
+            t = neighbours[ 3 * t + ( i + 2 ) % 3 ];
+        } while ( t != start );
+        vertexTriangle[ s ] = start;
+        vertexTriangle[ v ] = -1;
+        shadowOf[ s ] = -1;
+        firstShadow[ s ] = nextShadow[ s ];
+        for ( int r = firstShadow[ s ]; r >= 0; r = nextShadow[ r ] ) {
+            shadowOf[ r ] = s;
+        }
+        firstShadow[ v ] = -1;
+    }
+
+    // ---------------------------------------------------------------------
+    // predicates
+    // ---------------------------------------------------------------------
+
+    /**
+     * Orientation of the triangle abc: positive if counter clockwise, negative
+     * if clockwise, zero if the corners are collinear. For the corners of the
+     * super triangle, vx and vy hold the direction in which they lie at
+     * infinity.
+     */
+    private double orient( int a, int b, int c ) {
+        if ( c >= SUPER ) {
+            return orient( a, b, vx[ c ], vy[ c ] );
+        }
+        if ( a >= SUPER ) {
+            return orient( b, c, vx[ a ], vy[ a ] );
+        }
+        if ( b >= SUPER ) {
+            return orient( c, a, vx[ b ], vy[ b ] );
+        }
+        return ( b - a + SUPER ) % SUPER == 1 ? 1.0 : -1.0;
+    }
+
+    /**
+     * Orientation of the triangle formed by corners a, b and point (x,y).
+     */
+    private double orient( int a, int b, double x, double y ) {
+        if ( a >= SUPER && b >= SUPER ) {
+            return Geometry.cross( vx[ a ], vy[ a ], vx[ b ], vy[ b ], x, y );
+        }
+        if ( a < SUPER && b < SUPER ) {
+            return ( b - a + SUPER ) % SUPER == 1 ? 1.0 : -1.0;
+        }
+        if ( a < SUPER ) {
+            // orient( b, p, a ): direction of a against the edge b->p
+            return ( x - vx[ b ] ) * vy[ a ] - ( y - vy[ b ] ) * vx[ a ];
+        }
+        // orient( p, a, b )
+        return ( vx[ a ] - x ) * vy[ b ] - ( vy[ a ] - y ) * vx[ b ];
+    }
+
+    /**
+     * Is p inside the circumcircle of the counter clockwise triangle abc?
+     * Corners of the super triangle lie at infinity, which turns the circle
+     * into a half plane.
+     */
+    private boolean inCircle( int a, int b, int c, int p ) {
+        int supers = ( a < SUPER ? 1 : 0 ) + ( b < SUPER ? 1 : 0 ) + ( c < SUPER ? 1 : 0 );
+        if ( supers == 0 ) {
+            if ( p < SUPER ) {
+                return false;
+            }
+            double adx = vx[ a ] - vx[ p ], ady = vy[ a ] - vy[ p ];
+            double bdx = vx[ b ] - vx[ p ], bdy = vy[ b ] - vy[ p ];
+            double cdx = vx[ c ] - vx[ p ], cdy = vy[ c ] - vy[ p ];
+            double det = ( adx * adx + ady * ady ) * ( bdx * cdy - cdx * bdy )
+                    + ( bdx * bdx + bdy * bdy ) * ( cdx * ady - adx * cdy )
+                    + ( cdx * cdx + cdy * cdy ) * ( adx * bdy - bdx * ady );
+            return det > 0;
+        }
+        if ( supers == 3 ) {
+            return true;
+        }
+        // rotate so the super corners come last
+        while ( a < SUPER || ( supers == 1 && b < SUPER ) ) {
+            int r = a;
+            a = b;
+            b = c;
+            c = r;
+        }
+        if ( supers == 1 ) {
+            // half plane left of a->b, or on the segment ab
+            double o = orient( a, b, p );
+            if ( p < SUPER ) {
+                // both at infinity: the one furthest out along the normal wins
+                return o > orient( a, b, c );
+            }
+            if ( o != 0 ) {
+                return o > 0;
+            }
+            double dot = ( vx[ p ] - vx[ a ] ) * ( vx[ b ] - vx[ a ] )
+                    + ( vy[ p ] - vy[ a ] ) * ( vy[ b ] - vy[ a ] );
+            double length2 = ( vx[ b ] - vx[ a ] ) * ( vx[ b ] - vx[ a ] )
+                    + ( vy[ b ] - vy[ a ] ) * ( vy[ b ] - vy[ a ] );
+            return dot > 0 && dot < length2;
+        }
+        // half plane through a, parallel to the directions of b and c
+        double dx = vx[ c ] - vx[ b ], dy = vy[ c ] - vy[ b ];
+        if ( p < SUPER ) {
+            return dx * vy[ p ] - dy * vx[ p ] < 0;
+        }
+        return dx * ( vy[ p ] - vy[ a ] ) - dy * ( vx[ p ] - vx[ a ] ) < 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // bookkeeping
+    // ---------------------------------------------------------------------
+
+    private int newVertex( double x, double y ) {
+        if ( vertexSlots == vx.length ) {
+            int size = 2 * vx.length;
+            vx = Arrays.copyOf( vx, size );
+            vy = Arrays.copyOf( vy, size );
+            vertexTriangle = Arrays.copyOf( vertexTriangle, size );
+            shadowOf = Arrays.copyOf( shadowOf, size );
+            firstShadow = Arrays.copyOf( firstShadow, size );
+            nextShadow = Arrays.copyOf( nextShadow, size );
+            alive = Arrays.copyOf( alive, size );
+        }
+        int v = vertexSlots++;
+        vx[ v ] = x;
+        vy[ v ] = y;
+        alive[ v ] = true;
+        vertexTriangle[ v ] = -1;
+        shadowOf[ v ] = -1;
+        firstShadow[ v ] = -1;
+        return v;
+    }
+
+    private int newTriangle() {
+        if ( freeCount > 0 ) {
+            return free[ --freeCount ];
+        }
+        if ( 3 * triangleSlots + 3 > corners.length ) {
+            corners = Arrays.copyOf( corners, 2 * corners.length );
+            neighbours = Arrays.copyOf( neighbours, 2 * neighbours.length );
+        }
+        return triangleSlots++;
+    }
+
+    private void freeTriangle( int t ) {
+        corners[ 3 * t ] = corners[ 3 * t + 1 ] = corners[ 3 * t + 2 ] = -1;
+        if ( freeCount == free.length ) {
+            free = Arrays.copyOf( free, 2 * free.length );
+        }
+        free[ freeCount++ ] = t;
+    }
+
+    private void set( int t, int a, int b, int c, int na, int nb, int nc ) {
+        corners[ 3 * t ] = a;
+        corners[ 3 * t + 1 ] = b;
+        corners[ 3 * t + 2 ] = c;
+        neighbours[ 3 * t ] = na;
+        neighbours[ 3 * t + 1 ] = nb;
+        neighbours[ 3 * t + 2 ] = nc;
+        vertexTriangle[ a ] = t;
+        vertexTriangle[ b ] = t;
+        vertexTriangle[ c ] = t;
+        last = t;
+    }
+
+    private void replaceNeighbour( int t, int old, int replacement ) {
+        if ( t < 0 ) {
+            return;
+        }
+        for ( int k = 0; k < 3; k++ ) {
+            if ( neighbours[ 3 * t + k ] == old ) {
+                neighbours[ 3 * t + k ] = replacement;
+                return;
+            }
+        }
+    }
+
+    private int cornerIndex( int t, int v ) {
+        return corners[ 3 * t ] == v ? 0 : corners[ 3 * t + 1 ] == v ? 1 : 2;
+    }
+
+    /**
+     * Index of the edge from a to b in triangle t.
+     */
+    private int edgeIndex( int t, int a, int b ) {
+        return cornerIndex( t, a );
+    }
+
+    private static long edgeKey( int from, int to ) {
+        return ( (long) from << 32 ) | ( to & 0xffffffffL );
+    }
+
+    /**
+     * Stack of (triangle, edge index) pairs.
+     */
+    private static final class IntStack {
+
+        private int[] data = new int[ 32 ];
+        private int size;
+
+        void push( int triangle, int index ) {
+            if ( size + 2 > data.length ) {
+                data = Arrays.copyOf( data, 2 * data.length );
+            }
+            data[ size++ ] = triangle;
+            data[ size++ ] = index;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int popIndex() {
+            return data[ --size ];
+        }
+
+        int popTriangle() {
+            return data[ --size ];
+        }
+    }
+}
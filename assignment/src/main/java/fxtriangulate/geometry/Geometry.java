@@ -0,0 +1,249 @@
+package fxtriangulate.geometry;
+
+/**
+ * Geometry kernels on plain doubles and primitive coordinate buffers. Nothing
+ * in here depends on JavaFX, so the kernels can be used by the bindings of the
+ * triangulator as well as by batch jobs on machines without a display.
+ *
+ * A coordinate buffer is a double array holding x and y values interleaved:
+ * {@code x0, y0, x1, y1, ...}. Vertex i of a buffer is at positions 2i and
+ * 2i+1, relative to the offset passed to a kernel.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class Geometry {
+
+    private Geometry() {
+    }
+
+    /**
+     * The Pythagorean distance between two points.
+     *
+     * @param x1 x of first point
+     * @param y1 y of first point
+     * @param x2 x of second point
+     * @param y2 y of second point
+     * @return the distance
+     */
+    public static double distance( double x1, double y1, double x2, double y2 ) {
+        double xd = x1 - x2;
+        double yd = y1 - y2;
+        return Math.sqrt( xd * xd + yd * yd );
+    }
+
+    /**
+     * The distance between two vertices of a coordinate buffer.
+     *
+     * @param xy buffer
+     * @param i  index of first vertex
+     * @param j  index of second vertex
+     * @return the distance
+     */
+    public static double distance( double[] xy, int i, int j ) {
+        return distance( xy[ 2 * i ], xy[ 2 * i + 1 ], xy[ 2 * j ], xy[ 2 * j + 1 ] );
+    }
+
+    /**
+     * The area of a triangle with sides a, b and c, using Heron's formula in
+     * the form given by Kahan, which stays accurate for needle shaped
+     * triangles where the usual form cancels away most digits. Use
+     * {@link #triangleArea(double, double, double, double, double, double)}
+     * when the corners are known; it needs no square roots at all.
+     *
+     * @param a length of side a
+     * @param b length of side b
+     * @param c length of side c
+     * @return the area, 0 if the lengths cannot form a triangle
+     */
+    public static double heronArea( double a, double b, double c ) {
+        // sort so that a >= b >= c; the parentheses below matter
+        if ( a < b ) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        if ( b < c ) {
+            double t = b;
+            b = c;
+            c = t;
+        }
+        if ( a < b ) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        double p = ( a + ( b + c ) ) * ( c - ( a - b ) ) * ( c + ( a - b ) )
+                * ( a + ( b - c ) );
+        return p < 0 ? 0.0 : Math.sqrt( p ) / 4;
+    }
+
+    /**
+     * The area of the triangle with the given corners, computed with the cross
+     * product of two of its sides.
+     *
+     * @param x1 x of first corner
+     * @param y1 y of first corner
+     * @param x2 x of second corner
+     * @param y2 y of second corner
+     * @param x3 x of third corner
+     * @param y3 y of third corner
+     * @return the (non negative) area
+     */
+    public static double triangleArea( double x1, double y1, double x2,
+            double y2, double x3, double y3 ) {
+        return Math.abs( cross( x1, y1, x2, y2, x3, y3 ) ) / 2;
+    }
+
+    /**
+     * The area of a triangle formed by three vertices of a buffer.
+     *
+     * @param xy buffer
+     * @param i  first corner
+     * @param j  second corner
+     * @param k  third corner
+     * @return the area
+     */
+    public static double triangleArea( double[] xy, int i, int j, int k ) {
+        return triangleArea( xy[ 2 * i ], xy[ 2 * i + 1 ], xy[ 2 * j ],
+                xy[ 2 * j + 1 ], xy[ 2 * k ], xy[ 2 * k + 1 ] );
+    }
+
+    /**
+     * The cross product of (p2-p1) and (p3-p1). Positive if the three points
+     * make a counter clockwise turn in a y-up coordinate system, negative if
+     * clockwise and zero if they are collinear.
+     *
+     * @param x1 x of first point
+     * @param y1 y of first point
+     * @param x2 x of second point
+     * @param y2 y of second point
+     * @param x3 x of third point
+     * @param y3 y of third point
+     * @return twice the signed area of the triangle
+     */
+    public static double cross( double x1, double y1, double x2, double y2,
+            double x3, double y3 ) {
+        return ( x2 - x1 ) * ( y3 - y1 ) - ( y2 - y1 ) * ( x3 - x1 );
+    }
+
+    /**
+     * The average of two values, for instance the midpoint of a line.
+     *
+     * @param a value
+     * @param b value
+     * @return the average
+     */
+    public static double mean( double a, double b ) {
+        return ( a + b ) / 2;
+    }
+
+    /**
+     * The average of three values, for instance the center of gravity of a
+     * triangle.
+     *
+     * @param a value
+     * @param b value
+     * @param c value
+     * @return the average
+     */
+    public static double mean( double a, double b, double c ) {
+        return ( a + b + c ) / 3;
+    }
+
+    /**
+     * The average of the vertices of a buffer, which for a triangle is its
+     * center of gravity.
+     *
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @param out    receives x at index 0 and y at index 1
+     * @return out
+     */
+    public static double[] centroid( double[] xy, int offset, int count,
+            double[] out ) {
+        double sx = 0.0;
+        double sy = 0.0;
+        for ( int i = offset, end = offset + 2 * count; i < end; i += 2 ) {
+            sx += xy[ i ];
+            sy += xy[ i + 1 ];
+        }
+        out[ 0 ] = sx / count;
+        out[ 1 ] = sy / count;
+        return out;
+    }
+
+    /**
+     * Sum of the lengths of the edges between consecutive vertices of a buffer.
+     *
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @param closed if true, the edge from the last back to the first vertex
+     *               is included
+     * @return the length
+     */
+    public static double pathLength( double[] xy, int offset, int count,
+            boolean closed ) {
+        double length = 0.0;
+        int end = offset + 2 * count;
+        for ( int i = offset + 2; i < end; i += 2 ) {
+            length += distance( xy[ i - 2 ], xy[ i - 1 ], xy[ i ], xy[ i + 1 ] );
+        }
+        if ( closed && count > 1 ) {
+            length += distance( xy[ end - 2 ], xy[ end - 1 ], xy[ offset ],
+                    xy[ offset + 1 ] );
+        }
+        return length;
+    }
+
+    /**
+     * Area and perimeter of a simple polygon in a single pass over the buffer.
+     * The area is computed with the shoelace formula, relative to the first
+     * vertex to keep the products small for large coordinates.
+     *
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @param out    receives the area at index 0 and the perimeter at index 1
+     * @return out
+     */
+    public static double[] shoelace( double[] xy, int offset, int count,
+            double[] out ) {
+        if ( count < 2 ) {
+            out[ 0 ] = 0.0;
+            out[ 1 ] = 0.0;
+            return out;
+        }
+        double rx = xy[ offset ];
+        double ry = xy[ offset + 1 ];
+        double twiceArea = 0.0;
+        double perimeter = 0.0;
+        int end = offset + 2 * count;
+        double px = xy[ end - 2 ];
+        double py = xy[ end - 1 ];
+        for ( int i = offset; i < end; i += 2 ) {
+            double x = xy[ i ];
+            double y = xy[ i + 1 ];
+            twiceArea += ( px - rx ) * ( y - ry ) - ( x - rx ) * ( py - ry );
+            perimeter += distance( px, py, x, y );
+            px = x;
+            py = y;
+        }
+        out[ 0 ] = Math.abs( twiceArea ) / 2;
+        out[ 1 ] = perimeter;
+        return out;
+    }
+
+    /**
+     * The area of a simple polygon, see {@link #shoelace}.
+     *
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @return the area
+     */
+    public static double polygonArea( double[] xy, int offset, int count ) {
+        return shoelace( xy, offset, count, new double[ 2 ] )[ 0 ];
+    }
+}
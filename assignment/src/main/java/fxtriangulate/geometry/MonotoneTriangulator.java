@@ -0,0 +1,443 @@
+package fxtriangulate.geometry;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Triangulates a simple polygon in O(n log n).
+ *
+ * First the polygon is split into y-monotone pieces with a plane sweep from
+ * top to bottom, adding a diagonal at every split and merge vertex. Then every
+ * piece is triangulated in linear time with the stack based algorithm. See
+ * chapter 3 of de Berg et al., Computational Geometry, Algorithms and
+ * Applications.
+ *
+ * Vertices on the same height are ordered by x, which amounts to a sweep line
+ * that is rotated by an infinitesimal angle, so horizontal edges need no
+ * special treatment.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class MonotoneTriangulator {
+
+    private static final int START = 0, END = 1, SPLIT = 2, MERGE = 3,
+            REGULAR = 4;
+
+    /**
+     * Coordinates of the vertices in counter clockwise order.
+     */
+    private final double[] px, py;
+    private final int n;
+
+    /**
+     * Map from counter clockwise index to index in the input.
+     */
+    private final int[] original;
+
+    /**
+     * Diagonals found by the sweep, as pairs of vertex indices.
+     */
+    private int[] diagonals = new int[ 16 ];
+    private int diagonalCount;
+
+    /**
+     * Output, three vertex indices per triangle.
+     */
+    private final int[] triangles;
+    private int triangleCount;
+
+    /**
+     * Position of the sweep line, used by the status comparator.
+     */
+    private double sweepX, sweepY;
+
+    private MonotoneTriangulator( double[] xy, int offset, int count ) {
+        n = count;
+        px = new double[ n ];
+        py = new double[ n ];
+        original = new int[ n ];
+        double twiceArea = 0.0;
+        for ( int i = 0, j = n - 1; i < n; j = i++ ) {
+            twiceArea += xy[ offset + 2 * j ] * xy[ offset + 2 * i + 1 ]
+                    - xy[ offset + 2 * i ] * xy[ offset + 2 * j + 1 ];
+        }
+        for ( int i = 0; i < n; i++ ) {
+            original[ i ] = twiceArea >= 0 ? i : n - 1 - i;
+            px[ i ] = xy[ offset + 2 * original[ i ] ];
+            py[ i ] = xy[ offset + 2 * original[ i ] + 1 ];
+        }
+        triangles = new int[ 3 * Math.max( n - 2, 0 ) ];
+    }
+
+    /**
+     * Triangulate a simple polygon, given in either orientation.
+     *
+     * @param xy     buffer with the polygon vertices
+     * @param offset of the first x value in the buffer
+     * @param count  number of vertices
+     * @return the triangulation, with n-2 triangles for a polygon of n
+     *         vertices
+     */
+    public static Triangulation triangulate( double[] xy, int offset, int count ) {
+        double[] vertices = Arrays.copyOfRange( xy, offset, offset + 2 * count );
+        if ( count < 3 ) {
+            return new Triangulation( vertices, new int[ 0 ], new byte[ 0 ], 0 );
+        }
+        MonotoneTriangulator mt = new MonotoneTriangulator( vertices, 0, count );
+        mt.makeMonotone();
+        mt.triangulatePieces();
+        return mt.result( vertices );
+    }
+
+    /**
+     * Is vertex a above vertex b?
+     */
+    private boolean above( int a, int b ) {
+        return py[ a ] > py[ b ] || ( py[ a ] == py[ b ] && px[ a ] < px[ b ] );
+    }
+
+    private double cross( int a, int b, int c ) {
+        return Geometry.cross( px[ a ], py[ a ], px[ b ], py[ b ], px[ c ], py[ c ] );
+    }
+
+    private int prev( int i ) {
+        return i == 0 ? n - 1 : i - 1;
+    }
+
+    private int next( int i ) {
+        return i == n - 1 ? 0 : i + 1;
+    }
+
+    private int type( int i ) {
+        int p = prev( i );
+        int q = next( i );
+        boolean convex = cross( p, i, q ) > 0;
+        if ( above( i, p ) && above( i, q ) ) {
+            return convex ? START : SPLIT;
+        }
+        if ( above( p, i ) && above( q, i ) ) {
+            return convex ? END : MERGE;
+        }
+        return REGULAR;
+    }
+
+    /**
+     * The x value where edge e (from vertex e to vertex e+1) crosses the
+     * sweep line. Edge -1 stands for the current event vertex.
+     */
+    private double xAt( int e ) {
+        if ( e < 0 ) {
+            return sweepX;
+        }
+        int a = e;
+        int b = next( e );
+        if ( py[ a ] == py[ b ] ) {
+            return Math.max( Math.min( px[ a ], px[ b ] ),
+                    Math.min( sweepX, Math.max( px[ a ], px[ b ] ) ) );
+        }
+        if ( sweepY == py[ a ] ) {
+            return px[ a ];
+        }
+        if ( sweepY == py[ b ] ) {
+            return px[ b ];
+        }
+        double t = ( sweepY - py[ a ] ) / ( py[ b ] - py[ a ] );
+        return px[ a ] + t * ( px[ b ] - px[ a ] );
+    }
+
+    private void addDiagonal( int a, int b ) {
+        if ( 2 * diagonalCount + 2 > diagonals.length ) {
+            diagonals = Arrays.copyOf( diagonals, diagonals.length * 2 );
+        }
+        diagonals[ 2 * diagonalCount ] = a;
+        diagonals[ 2 * diagonalCount + 1 ] = b;
+        diagonalCount++;
+    }
+
+    /**
+     * Sweep from top to bottom, adding diagonals that split the polygon into
+     * y-monotone pieces.
+     */
+    private void makeMonotone() {
+        int[] order = IntStream.range( 0, n ).boxed()
+                .sorted( ( a, b ) -> above( a, b ) ? -1 : above( b, a ) ? 1
+                : Integer.compare( a, b ) )
+                .mapToInt( Integer::intValue )
+                .toArray();
+        int[] types = new int[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            types[ i ] = type( i );
+        }
+
+        int[] helper = new int[ n ];
+        TreeSet<Integer> status = new TreeSet<>( ( a, b ) -> {
+            int c = Double.compare( xAt( a ), xAt( b ) );
+            return c != 0 ? c : Integer.compare( a, b );
+        } );
+
+        for ( int v : order ) {
+            sweepX = px[ v ];
+            sweepY = py[ v ];
+            int before = prev( v );
+            switch ( types[ v ] ) {
+                case START:
+                    status.add( v );
+                    helper[ v ] = v;
+                    break;
+                case END:
+                    if ( types[ helper[ before ] ] == MERGE ) {
+                        addDiagonal( v, helper[ before ] );
+                    }
+                    status.remove( before );
+                    break;
+                case SPLIT: {
+                    Integer left = status.lower( -1 );
+                    if ( left != null ) {
+                        addDiagonal( v, helper[ left ] );
+                        helper[ left ] = v;
+                    }
+                    status.add( v );
+                    helper[ v ] = v;
+                    break;
+                }
+                case MERGE: {
+                    if ( types[ helper[ before ] ] == MERGE ) {
+                        addDiagonal( v, helper[ before ] );
+                    }
+                    status.remove( before );
+                    Integer left = status.lower( -1 );
+                    if ( left != null ) {
+                        if ( types[ helper[ left ] ] == MERGE ) {
+                            addDiagonal( v, helper[ left ] );
+                        }
+                        helper[ left ] = v;
+                    }
+                    break;
+                }
+                default:
+                    if ( above( before, v ) ) {
+                        // interior of the polygon lies to the right of v
+                        if ( types[ helper[ before ] ] == MERGE ) {
+                            addDiagonal( v, helper[ before ] );
+                        }
+                        status.remove( before );
+                        status.add( v );
+                        helper[ v ] = v;
+                    } else {
+                        Integer left = status.lower( -1 );
+                        if ( left != null ) {
+                            if ( types[ helper[ left ] ] == MERGE ) {
+                                addDiagonal( v, helper[ left ] );
+                            }
+                            helper[ left ] = v;
+                        }
+                    }
+            }
+        }
+    }
+
+    /**
+     * Walk the faces formed by the polygon edges and the diagonals and
+     * triangulate each of them.
+     */
+    private void triangulatePieces() {
+        // adjacency in compressed form, neighbours sorted counter clockwise
+        int[] degree = new int[ n + 1 ];
+        for ( int i = 0; i < n; i++ ) {
+            degree[ i ] = 2;
+        }
+        for ( int d = 0; d < 2 * diagonalCount; d++ ) {
+            degree[ diagonals[ d ] ]++;
+        }
+        int[] start = new int[ n + 1 ];
+        for ( int i = 0; i < n; i++ ) {
+            start[ i + 1 ] = start[ i ] + degree[ i ];
+        }
+        int[] adjacent = new int[ start[ n ] ];
+        int[] fill = Arrays.copyOf( start, n );
+        for ( int i = 0; i < n; i++ ) {
+            adjacent[ fill[ i ]++ ] = next( i );
+            adjacent[ fill[ i ]++ ] = prev( i );
+        }
+        for ( int d = 0; d < diagonalCount; d++ ) {
+            int a = diagonals[ 2 * d ];
+            int b = diagonals[ 2 * d + 1 ];
+            adjacent[ fill[ a ]++ ] = b;
+            adjacent[ fill[ b ]++ ] = a;
+        }
+        for ( int i = 0; i < n; i++ ) {
+            if ( degree[ i ] > 2 ) {
+                sortByAngle( i, adjacent, start[ i ], start[ i + 1 ] );
+            }
+        }
+
+        boolean[] visited = new boolean[ adjacent.length ];
+        int[] face = new int[ n ];
+        for ( int v = 0; v < n; v++ ) {
+            for ( int k = start[ v ]; k < start[ v + 1 ]; k++ ) {
+                // the reversed polygon edges border the outside
+                if ( visited[ k ] || adjacent[ k ] == prev( v ) ) {
+                    continue;
+                }
+                int size = 0;
+                int from = v;
+                int slot = k;
+                while ( !visited[ slot ] ) {
+                    visited[ slot ] = true;
+                    face[ size++ ] = from;
+                    int to = adjacent[ slot ];
+                    // the next edge of the face is the first one clockwise
+                    // from the edge we arrived by
+                    int back = start[ to ];
+                    while ( adjacent[ back ] != from ) {
+                        back++;
+                    }
+                    slot = back == start[ to ] ? start[ to + 1 ] - 1 : back - 1;
+                    from = to;
+                }
+                triangulateMonotone( face, size );
+            }
+        }
+    }
+
+    private void sortByAngle( int v, int[] adjacent, int from, int to ) {
+        Integer[] neighbours = new Integer[ to - from ];
+        for ( int k = from; k < to; k++ ) {
+            neighbours[ k - from ] = adjacent[ k ];
+        }
+        Arrays.sort( neighbours, ( a, b ) -> Double.compare(
+                Math.atan2( py[ a ] - py[ v ], px[ a ] - px[ v ] ),
+                Math.atan2( py[ b ] - py[ v ], px[ b ] - px[ v ] ) ) );
+        for ( int k = from; k < to; k++ ) {
+            adjacent[ k ] = neighbours[ k - from ];
+        }
+    }
+
+    /**
+     * Triangulate a y-monotone polygon, given counter clockwise.
+     */
+    private void triangulateMonotone( int[] face, int size ) {
+        if ( size < 3 ) {
+            return;
+        }
+        if ( size == 3 ) {
+            addTriangle( face[ 0 ], face[ 1 ], face[ 2 ] );
+            return;
+        }
+        int top = 0;
+        int bottom = 0;
+        for ( int i = 1; i < size; i++ ) {
+            if ( above( face[ i ], face[ top ] ) ) {
+                top = i;
+            }
+            if ( above( face[ bottom ], face[ i ] ) ) {
+                bottom = i;
+            }
+        }
+
+        // merge the left chain (forward from top) and the right chain
+        // (backward from top) into one list sorted from top to bottom
+        int[] sorted = new int[ size ];
+        boolean[] left = new boolean[ size ];
+        sorted[ 0 ] = face[ top ];
+        left[ 0 ] = true;
+        int leftCount = ( bottom - top + size ) % size;
+        int rightCount = size - 1 - leftCount;
+        int l = ( top + 1 ) % size;
+        int r = ( top + size - 1 ) % size;
+        for ( int i = 1; i < size; i++ ) {
+            boolean takeLeft = rightCount == 0
+                    || leftCount > 0 && above( face[ l ], face[ r ] );
+            if ( takeLeft ) {
+                sorted[ i ] = face[ l ];
+                left[ i ] = true;
+                l = ( l + 1 ) % size;
+                leftCount--;
+            } else {
+                sorted[ i ] = face[ r ];
+                left[ i ] = false;
+                r = ( r + size - 1 ) % size;
+                rightCount--;
+            }
+        }
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push( 0 );
+        stack.push( 1 );
+        for ( int j = 2; j < size - 1; j++ ) {
+            if ( left[ j ] != left[ stack.peek() ] ) {
+                int last = stack.pop();
+                while ( !stack.isEmpty() ) {
+                    int other = stack.pop();
+                    addOriented( sorted[ j ], sorted[ last ], sorted[ other ] );
+                    last = other;
+                }
+                stack.push( j - 1 );
+                stack.push( j );
+            } else {
+                int last = stack.pop();
+                while ( !stack.isEmpty() ) {
+                    int other = stack.peek();
+                    double turn = cross( sorted[ other ], sorted[ last ], sorted[ j ] );
+                    if ( left[ j ] ? turn <= 0 : turn >= 0 ) {
+                        break;
+                    }
+                    addOriented( sorted[ j ], sorted[ last ], sorted[ other ] );
+                    last = stack.pop();
+                }
+                stack.push( last );
+                stack.push( j );
+            }
+        }
+        int last = stack.pop();
+        while ( !stack.isEmpty() ) {
+            int other = stack.pop();
+            addOriented( sorted[ size - 1 ], sorted[ last ], sorted[ other ] );
+            last = other;
+        }
+    }
+
+    /**
+     * Add a triangle, counter clockwise.
+     */
+    private void addOriented( int a, int b, int c ) {
+        if ( cross( a, b, c ) < 0 ) {
+            addTriangle( a, c, b );
+        } else {
+            addTriangle( a, b, c );
+        }
+    }
+
+    private void addTriangle( int a, int b, int c ) {
+        if ( 3 * triangleCount + 3 > triangles.length ) {
+            // only possible for self intersecting input
+            return;
+        }
+        triangles[ 3 * triangleCount ] = a;
+        triangles[ 3 * triangleCount + 1 ] = b;
+        triangles[ 3 * triangleCount + 2 ] = c;
+        triangleCount++;
+    }
+
+    /**
+     * Translate to input indices and compute the border flags.
+     */
+    private Triangulation result( double[] vertices ) {
+        int[] corners = new int[ 3 * triangleCount ];
+        byte[] borders = new byte[ triangleCount ];
+        for ( int t = 0; t < triangleCount; t++ ) {
+            for ( int k = 0; k < 3; k++ ) {
+                int a = triangles[ 3 * t + k ];
+                int b = triangles[ 3 * t + ( k + 1 ) % 3 ];
+                corners[ 3 * t + k ] = original[ a ];
+                if ( b == next( a ) || a == next( b ) ) {
+                    borders[ t ] |= 1 << k;
+                }
+            }
+        }
+        return new Triangulation( vertices, corners, borders, triangleCount );
+    }
+}
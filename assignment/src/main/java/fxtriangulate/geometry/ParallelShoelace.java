@@ -0,0 +1,164 @@
+package fxtriangulate.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Area and perimeter of very large polygons, summed in parallel.
+ *
+ * The vertices are cut into chunks of {@link #CHUNK} edges. Each chunk sums
+ * its shoelace terms and edge lengths with Kahan summation, and the partial
+ * sums are combined pairwise up a split tree, again with compensation. The
+ * tree only depends on the number of vertices, never on the number of
+ * threads or on which thread finishes first, so the result is the same to
+ * the last bit on any pool, including when it runs on a single thread.
+ *
+ * Polygons of at most one chunk are summed on the calling thread.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class ParallelShoelace {
+
+    /**
+     * Number of edges summed by one leaf task.
+     */
+    public static final int CHUNK = 1 << 15;
+
+    private ParallelShoelace() {
+    }
+
+    /**
+     * The area and perimeter of a simple polygon, like
+     * {@link Geometry#shoelace}, summed on the common pool.
+     *
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @param out    receives the area at index 0 and the perimeter at index 1
+     * @return out
+     */
+    public static double[] shoelace( double[] xy, int offset, int count,
+            double[] out ) {
+        sums( ForkJoinPool.commonPool(), xy, offset, count, null, out );
+        out[ 0 ] = Math.abs( out[ 0 ] ) / 2;
+        return out;
+    }
+
+    /**
+     * Twice the signed area and the perimeter of a polygon, relative to its
+     * first vertex as reference point. Optionally the edge lengths are stored
+     * on the way, edge i running from vertex i to vertex i+1.
+     *
+     * @param pool   to run the chunks on
+     * @param xy     buffer
+     * @param offset of first x value in the buffer
+     * @param count  number of vertices
+     * @param edges  receives count edge lengths, may be null
+     * @param out    receives twice the signed area at index 0 and the perimeter
+     *               at index 1
+     * @return out
+     */
+    public static double[] sums( ForkJoinPool pool, double[] xy, int offset,
+            int count, double[] edges, double[] out ) {
+        if ( count < 2 ) {
+            out[ 0 ] = 0.0;
+            out[ 1 ] = 0.0;
+            return out;
+        }
+        Sum task = new Sum( xy, offset, count, edges, 0, count );
+        double[] sum = count <= CHUNK ? task.compute() : pool.invoke( task );
+        out[ 0 ] = sum[ 0 ] + sum[ 1 ];
+        out[ 1 ] = sum[ 2 ] + sum[ 3 ];
+        return out;
+    }
+
+    /**
+     * Sums of the edges from..to, as area, area compensation, perimeter and
+     * perimeter compensation.
+     */
+    private static final class Sum extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xy;
+        private final int offset;
+        private final int count;
+        private final double[] edges;
+        private final int from;
+        private final int to;
+
+        Sum( double[] xy, int offset, int count, double[] edges, int from, int to ) {
+            this.xy = xy;
+            this.offset = offset;
+            this.count = count;
+            this.edges = edges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if ( to - from <= CHUNK ) {
+                return leaf();
+            }
+            // split on a chunk boundary, so the leaves do not depend on the depth
+            int chunks = ( to - from + CHUNK - 1 ) / CHUNK;
+            int mid = from + chunks / 2 * CHUNK;
+            Sum left = new Sum( xy, offset, count, edges, from, mid );
+            Sum right = new Sum( xy, offset, count, edges, mid, to );
+            right.fork();
+            double[] l = left.compute();
+            double[] r = right.join();
+            return combine( l, r );
+        }
+
+        private double[] leaf() {
+            double rx = xy[ offset ];
+            double ry = xy[ offset + 1 ];
+            double area = 0.0, areaC = 0.0;
+            double perimeter = 0.0, perimeterC = 0.0;
+            for ( int i = from; i < to; i++ ) {
+                int j = i + 1 == count ? 0 : i + 1;
+                double x1 = xy[ offset + 2 * i ];
+                double y1 = xy[ offset + 2 * i + 1 ];
+                double x2 = xy[ offset + 2 * j ];
+                double y2 = xy[ offset + 2 * j + 1 ];
+                double length = Geometry.distance( x1, y1, x2, y2 );
+                if ( edges != null ) {
+                    edges[ i ] = length;
+                }
+
+                double y = ( x1 - rx ) * ( y2 - ry ) - ( x2 - rx ) * ( y1 - ry ) - areaC;
+                double t = area + y;
+                areaC = ( t - area ) - y;
+                area = t;
+
+                y = length - perimeterC;
+                t = perimeter + y;
+                perimeterC = ( t - perimeter ) - y;
+                perimeter = t;
+            }
+            // store the compensations as corrections to add
+            return new double[]{ area, -areaC, perimeter, -perimeterC };
+        }
+    }
+
+    /**
+     * Add two partial sums, keeping the rounding error of the addition in the
+     * compensation.
+     */
+    static double[] combine( double[] l, double[] r ) {
+        double[] s = new double[ 4 ];
+        for ( int k = 0; k < 4; k += 2 ) {
+            double a = l[ k ];
+            double b = r[ k ];
+            double t = a + b;
+            double error = Math.abs( a ) >= Math.abs( b )
+                    ? ( a - t ) + b
+                    : ( b - t ) + a;
+            s[ k ] = t;
+            s[ k + 1 ] = l[ k + 1 ] + r[ k + 1 ] + error;
+        }
+        return s;
+    }
+}
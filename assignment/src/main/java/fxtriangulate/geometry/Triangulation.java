@@ -0,0 +1,129 @@
+package fxtriangulate.geometry;
+
+/**
+ * Result of triangulating a polygon. Triangles refer to the vertices of the
+ * polygon by index, three indices per triangle. For every triangle a border
+ * flag tells for each of its edges whether that edge lies on the border of the
+ * polygon, so the border length can be attributed to the triangles without any
+ * edge being counted twice.
+ *
+ * Edge k of a triangle runs from corner k to corner k+1 (modulo 3).
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class Triangulation {
+
+    private final double[] xy;
+    private final int[] corners;
+    private final byte[] borders;
+    private final int size;
+
+    /**
+     * Create the result.
+     *
+     * @param xy      polygon vertices, x and y interleaved, starting at index 0
+     * @param corners vertex indices, three per triangle
+     * @param borders border flags, bit k set if edge k is a border edge
+     * @param size    number of triangles
+     */
+    Triangulation( double[] xy, int[] corners, byte[] borders, int size ) {
+        this.xy = xy;
+        this.corners = corners;
+        this.borders = borders;
+        this.size = size;
+    }
+
+    /**
+     * Number of triangles.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of polygon vertices the triangles refer to.
+     *
+     * @return the vertex count
+     */
+    public int vertexCount() {
+        return xy.length / 2;
+    }
+
+    /**
+     * @param v vertex index
+     * @return x of the vertex
+     */
+    public double x( int v ) {
+        return xy[ 2 * v ];
+    }
+
+    /**
+     * @param v vertex index
+     * @return y of the vertex
+     */
+    public double y( int v ) {
+        return xy[ 2 * v + 1 ];
+    }
+
+    /**
+     * Vertex index of a corner of a triangle.
+     *
+     * @param t triangle
+     * @param k corner, 0, 1 or 2
+     * @return the index of the vertex in the polygon
+     */
+    public int corner( int t, int k ) {
+        return corners[ 3 * t + k ];
+    }
+
+    /**
+     * Is the given edge of a triangle part of the polygon border?
+     *
+     * @param t triangle
+     * @param k edge, from corner k to corner k+1
+     * @return true if the edge is a border edge
+     */
+    public boolean isBorder( int t, int k ) {
+        return ( borders[ t ] & ( 1 << k ) ) != 0;
+    }
+
+    /**
+     * The area of a triangle.
+     *
+     * @param t triangle
+     * @return the area
+     */
+    public double area( int t ) {
+        return Geometry.triangleArea( xy, corners[ 3 * t ], corners[ 3 * t + 1 ],
+                corners[ 3 * t + 2 ] );
+    }
+
+    /**
+     * The summed length of the border edges of a triangle.
+     *
+     * @param t triangle
+     * @return the border length, zero if the triangle is inside the polygon
+     */
+    public double borderLength( int t ) {
+        double length = 0.0;
+        for ( int k = 0; k < 3; k++ ) {
+            if ( isBorder( t, k ) ) {
+                length += Geometry.distance( xy, corners[ 3 * t + k ],
+                        corners[ 3 * t + ( k + 1 ) % 3 ] );
+            }
+        }
+        return length;
+    }
+
+    /**
+     * The corner indices, three per triangle. The array may be longer than
+     * 3 * size().
+     *
+     * @return the corner array
+     */
+    public int[] corners() {
+        return corners;
+    }
+}
@@ -0,0 +1,53 @@
+package fxtriangulate.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event counter that many threads can increment without contention.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter( String name ) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Count one event, if metrics are enabled. Costs nothing otherwise.
+     */
+    public void increment() {
+        if ( Metrics.ENABLED ) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Count events, if metrics are enabled. Costs nothing otherwise.
+     *
+     * @param n number of events
+     */
+    public void add( long n ) {
+        if ( Metrics.ENABLED ) {
+            count.add( n );
+        }
+    }
+
+    /**
+     * @return the number of events counted since the last reset
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,151 @@
+package fxtriangulate.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with lock free recording.
+ *
+ * Like HdrHistogram, the buckets are linear within each power of two: values
+ * below 8 have a bucket each, larger values share a bucket with the values
+ * that have the same three bits after the leading one. So any recorded value
+ * is known to within 12.5%, over the whole range of long, in 488 buckets.
+ *
+ * Recording is an increment of an atomic array element plus two adders; a
+ * reset that runs concurrently may lose or keep the odd value.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = ( 62 - SUB_BITS + 2 ) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKETS );
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator( Math::max, 0L );
+
+    Histogram( String name ) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Start timing, if metrics are enabled.
+     *
+     * @return the start time to pass to {@link #stop(long)}
+     */
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the time since start, if metrics are enabled.
+     *
+     * @param start as returned by {@link #start()}
+     */
+    public void stop( long start ) {
+        if ( Metrics.ENABLED ) {
+            record( System.nanoTime() - start );
+        }
+    }
+
+    /**
+     * Record a value, whether metrics are enabled or not. Negative values
+     * count as 0.
+     *
+     * @param value to record, normally nanoseconds
+     */
+    public void record( long value ) {
+        long v = Math.max( value, 0L );
+        counts.incrementAndGet( bucket( v ) );
+        count.increment();
+        total.add( v );
+        max.accumulate( v );
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the largest recorded value, 0 if there is none
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if there are none
+     */
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) total.sum() / n;
+    }
+
+    /**
+     * The value below which the given percentage of the recorded values lie,
+     * as the upper bound of its bucket.
+     *
+     * @param percentile 0 to 100
+     * @return the value, 0 if nothing was recorded
+     */
+    public long percentile( double percentile ) {
+        long[] snapshot = new long[ BUCKETS ];
+        long n = 0;
+        for ( int b = 0; b < BUCKETS; b++ ) {
+            snapshot[ b ] = counts.get( b );
+            n += snapshot[ b ];
+        }
+        if ( n == 0 ) {
+            return 0L;
+        }
+        long rank = Math.max( 1L, (long) Math.ceil( percentile / 100 * n ) );
+        long seen = 0;
+        for ( int b = 0; b < BUCKETS; b++ ) {
+            seen += snapshot[ b ];
+            if ( seen >= rank ) {
+                return Math.min( upperBound( b ), max() );
+            }
+        }
+        return max();
+    }
+
+    void reset() {
+        for ( int b = 0; b < BUCKETS; b++ ) {
+            counts.set( b, 0L );
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    static int bucket( long value ) {
+        if ( value < SUB_BUCKETS ) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros( value );
+        int sub = (int) ( value >>> ( exponent - SUB_BITS ) ) & ( SUB_BUCKETS - 1 );
+        return ( exponent - SUB_BITS + 1 ) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound( int bucket ) {
+        if ( bucket < SUB_BUCKETS ) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << ( exponent - SUB_BITS );
+        return ( SUB_BUCKETS + sub ) * width + width - 1;
+    }
+}
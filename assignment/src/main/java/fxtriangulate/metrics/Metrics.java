@@ -0,0 +1,181 @@
+package fxtriangulate.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Opt in counters and latency histograms for the hot paths of the
+ * triangulator and the surveyor.
+ *
+ * Metrics are off unless the system property {@code fxtriangulate.metrics} is
+ * true. The switch is a constant, so when it is off the JIT removes the
+ * recording from {@link Counter#increment()}, {@link Counter#add(long)} and
+ * {@link Histogram#stop(long)} altogether. When it is on, the metrics are registered as an MXBean and a
+ * snapshot is logged every {@code fxtriangulate.metrics.interval} seconds
+ * (default 60, 0 for never).
+ *
+ * Hot paths keep their counters and histograms in static final fields:
+ * <pre>
+ * static final Histogram SNAP = Metrics.histogram( "snap.nearest" );
+ * ...
+ * long start = SNAP.start();
+ * ...
+ * SNAP.stop( start );
+ * </pre>
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public final class Metrics {
+
+    /**
+     * Whether metrics are recorded.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean( "fxtriangulate.metrics" );
+
+    public static final String OBJECT_NAME = "fxtriangulate:type=Metrics";
+
+    private static final Logger LOG = Logger.getLogger( Metrics.class.getName() );
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    private static volatile long since = System.nanoTime();
+
+    static {
+        if ( ENABLED ) {
+            register();
+            long interval = Long.getLong( "fxtriangulate.metrics.interval", 60L );
+            if ( interval > 0 ) {
+                ScheduledExecutorService dump = Executors
+                        .newSingleThreadScheduledExecutor( r -> {
+                            Thread t = new Thread( r, "metrics" );
+                            t.setDaemon( true );
+                            return t;
+                        } );
+                dump.scheduleAtFixedRate( () -> LOG.info( snapshot() ),
+                        interval, interval, TimeUnit.SECONDS );
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * The counter with the given name, created on first use.
+     *
+     * @param name of the counter
+     * @return the counter
+     */
+    public static Counter counter( String name ) {
+        return COUNTERS.computeIfAbsent( name, Counter::new );
+    }
+
+    /**
+     * The histogram with the given name, created on first use.
+     *
+     * @param name of the histogram
+     * @return the histogram
+     */
+    public static Histogram histogram( String name ) {
+        return HISTOGRAMS.computeIfAbsent( name, Histogram::new );
+    }
+
+    /**
+     * All metrics as text, one line each, sorted by name. Histograms show
+     * their rate since the last reset and latencies in microseconds.
+     *
+     * @return the snapshot
+     */
+    public static String snapshot() {
+        double seconds = Math.max( 1e-9, ( System.nanoTime() - since ) / 1e9 );
+        StringBuilder s = new StringBuilder( "metrics over " )
+                .append( Math.round( seconds ) ).append( " s" );
+        for ( Counter c : COUNTERS.values() ) {
+            s.append( '\n' ).append( c.name() ).append( ' ' ).append( c.get() );
+        }
+        for ( Histogram h : HISTOGRAMS.values() ) {
+            s.append( '\n' ).append( h.name() )
+                    .append( " count=" ).append( h.count() )
+                    .append( " rate=" ).append( Math.round( h.count() / seconds ) )
+                    .append( "/s mean=" ).append( micros( Math.round( h.mean() ) ) )
+                    .append( " p50=" ).append( micros( h.percentile( 50 ) ) )
+                    .append( " p99=" ).append( micros( h.percentile( 99 ) ) )
+                    .append( " max=" ).append( micros( h.max() ) );
+        }
+        return s.toString();
+    }
+
+    /**
+     * Clear all counters and histograms.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach( Counter::reset );
+        HISTOGRAMS.values().forEach( Histogram::reset );
+        since = System.nanoTime();
+    }
+
+    private static String micros( long nanos ) {
+        return nanos / 1000 + "." + nanos % 1000 / 100 + "us";
+    }
+
+    private static Map<String, Long> histograms( ToLongFunction<Histogram> value ) {
+        Map<String, Long> m = new TreeMap<>();
+        HISTOGRAMS.values().forEach( h -> m.put( h.name(), value.applyAsLong( h ) ) );
+        return m;
+    }
+
+    private static void register() {
+        MetricsMXBean bean = new MetricsMXBean() {
+            @Override
+            public Map<String, Long> getCounts() {
+                Map<String, Long> m = histograms( Histogram::count );
+                COUNTERS.values().forEach( c -> m.put( c.name(), c.get() ) );
+                return m;
+            }
+
+            @Override
+            public Map<String, Long> getMedianNanos() {
+                return histograms( h -> h.percentile( 50 ) );
+            }
+
+            @Override
+            public Map<String, Long> getP99Nanos() {
+                return histograms( h -> h.percentile( 99 ) );
+            }
+
+            @Override
+            public Map<String, Long> getMaxNanos() {
+                return histograms( Histogram::max );
+            }
+
+            @Override
+            public String getSnapshot() {
+                return snapshot();
+            }
+
+            @Override
+            public void reset() {
+                Metrics.reset();
+            }
+        };
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean( new StandardMBean( bean, MetricsMXBean.class, true ),
+                            new ObjectName( OBJECT_NAME ) );
+        } catch ( JMException e ) {
+            LOG.log( Level.WARNING, "cannot register metrics", e );
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package fxtriangulate.metrics;
+
+import java.util.Map;
+
+/**
+ * The metrics as seen in JConsole or any other JMX client, under the name
+ * {@value Metrics#OBJECT_NAME}. Latencies are in nanoseconds.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return the value of every counter and the count of every histogram
+     */
+    Map<String, Long> getCounts();
+
+    Map<String, Long> getMedianNanos();
+
+    Map<String, Long> getP99Nanos();
+
+    Map<String, Long> getMaxNanos();
+
+    /**
+     * @return all metrics as text, one line each
+     */
+    String getSnapshot();
+
+    /**
+     * Clear all counters and histograms.
+     */
+    void reset();
+}
@@ -1,7 +1,11 @@
 module fxtriangulate {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.logging;
+    requires java.management;
 
     opens fxtriangulate to javafx.fxml;
     exports fxtriangulate;
+    exports fxtriangulate.geometry;
+    exports fxtriangulate.metrics;
 }
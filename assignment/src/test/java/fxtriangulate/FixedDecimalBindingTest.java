@@ -0,0 +1,67 @@
+package fxtriangulate;
+
+import java.util.Random;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the fixed decimal text equals what String.format makes of it,
+ * and that changes that round to the same text are not passed on.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class FixedDecimalBindingTest {
+
+    @Test
+    public void tSameAsFormat() {
+        DoubleProperty value = new SimpleDoubleProperty();
+        FixedDecimalBinding text = FixedDecimalBinding.of( value, "Area: " );
+        double[] special = { 0.0, -0.0, -0.001, 1.005, 2.675, 0.125, 9.995,
+            999999.995, 1e20, Double.NaN, Double.NEGATIVE_INFINITY };
+        Random r = new Random( 7 );
+        for ( int i = 0; i < 10_000; i++ ) {
+            double v = i < special.length ? special[ i ]
+                    : ( r.nextDouble() - 0.5 ) * Math.pow( 10, r.nextInt( 9 ) );
+            value.set( v );
+
+            assertThat( text.get() ).as( "%s", v )
+                    .isEqualTo( "Area: " + String.format( "%6.2f", v ) );
+            assertThat( FixedDecimalBinding.format( v, 2 ) ).as( "%s", v )
+                    .isEqualTo( String.format( "%.2f", v ) );
+        }
+    }
+
+    @Test
+    public void tSkipsSameText() {
+        DoubleProperty value = new SimpleDoubleProperty( 1.0 );
+        FixedDecimalBinding text = FixedDecimalBinding.of( value, "" );
+        int[] invalidations = { 0 };
+        text.addListener( o -> invalidations[ 0 ]++ );
+        text.get();
+
+        value.set( 1.001 );
+        value.set( 1.002 );
+        assertThat( invalidations[ 0 ] ).isZero();
+
+        value.set( 1.01 );
+        assertThat( invalidations[ 0 ] ).isOne();
+        assertThat( text.get() ).isEqualTo( String.format( "%6.2f", 1.01 ) );
+    }
+
+    @Test
+    public void tDispose() {
+        DoubleProperty value = new SimpleDoubleProperty( 1.0 );
+        FixedDecimalBinding text = FixedDecimalBinding.of( value, "" );
+        int[] invalidations = { 0 };
+        text.addListener( o -> invalidations[ 0 ]++ );
+        text.get();
+
+        text.dispose();
+        value.set( 2.0 );
+
+        assertThat( invalidations[ 0 ] ).isZero();
+        assertThat( text.isValid() ).isTrue();
+    }
+}
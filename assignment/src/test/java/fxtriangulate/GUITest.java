@@ -1,23 +1,34 @@
 package fxtriangulate;
 
+import fxtriangulate.geometry.Geometry;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.ParseException;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
+import javafx.scene.shape.Line;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Transform;
 import javafx.stage.Stage;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.testfx.api.FxRobot;
 import static org.assertj.core.api.Assertions.*;
 import org.assertj.core.api.SoftAssertions;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -170,6 +181,133 @@ public class GUITest {
         assertThat( triangulator.getTargets() ).hasSize( 5 );
     }
 
+    /**
+     * Moving a vertex corrects the polygon area and moves its snap target.
+     */
+    @Test
+    public void tMovePoint() {
+        FxRobot rob = new FxRobot();
+        WaitForAsyncUtils.waitForFxEvents();
+        rob.interact( () -> triangulator.movePoint( 3, 300.0, 300.0 ) );
+
+        double[] xy = triangulator.polygonPoints.toArray();
+        assertThat( triangulator.polygonAreaBinding().get() ).isCloseTo(
+                Geometry.polygonArea( xy, 0, xy.length / 2 ), within( 1e-6 ) );
+        assertThat( triangulator.getTargets().get( 3 ).getLayoutX() )
+                .isCloseTo( triangulator.polygon.getLayoutX() + 300.0, within( 1e-9 ) );
+    }
+
+    /**
+     * A large polygon gets a snap target per vertex, but only a few labels.
+     */
+    @Test
+    public void tLabelsForLargePolygon() {
+        double[] xy = new double[ 2 * 10_000 ];
+        for ( int i = 0; i < 10_000; i++ ) {
+            xy[ 2 * i ] = 50.0 + 5.0 * ( i % 100 );
+            xy[ 2 * i + 1 ] = 50.0 + 5.0 * ( i / 100 );
+        }
+        triangulator.addPoints( xy, 0, xy.length );
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertThat( triangulator.getTargets() ).hasSize( 10_000 );
+        assertThat( triangulator.getChildren().stream()
+                .filter( n -> n instanceof SnapLabel && n.isVisible() ) )
+                .hasSizeLessThanOrEqualTo( VertexLabels.MAX_VISIBLE );
+    }
+
+    /**
+     * A file without points leaves an empty polygon, without snap targets.
+     */
+    @Test
+    public void tLoadEmptyFile( @TempDir Path dir ) throws Exception {
+        Path file = Files.writeString( dir.resolve( "empty.csv" ), "x,y\n" );
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Task<Integer> task = triangulator.loadPoints( file );
+        assertThat( task.get( 10, TimeUnit.SECONDS ) ).isZero();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertThat( triangulator.polygon.getPoints() ).isEmpty();
+        assertThat( triangulator.getTargets() ).isEmpty();
+    }
+
+    /**
+     * A cancelled load does not label the points, leaves no snap targets of
+     * the old polygon and does not leave the old polygon on screen. The cancel
+     * may come before or after the first chunk, so the polygon is either
+     * empty or holds that chunk.
+     */
+    @Test
+    public void tLoadCancelled( @TempDir Path dir ) throws Exception {
+        Path file = Files.writeString( dir.resolve( "square.csv" ),
+                "0,0\n100,0\n100,100\n0,100\n" );
+        WaitForAsyncUtils.waitForFxEvents();
+        List<Double> old = List.copyOf( triangulator.polygon.getPoints() );
+        assertThat( triangulator.getTargets() ).isNotEmpty();
+
+        new FxRobot().interact( () -> triangulator.loadPoints( file ).cancel() );
+        WaitForAsyncUtils.sleep( 500, TimeUnit.MILLISECONDS );
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertThat( triangulator.getTargets() ).isEmpty();
+        assertThat( triangulator.polygon.getPoints() ).isNotEqualTo( old );
+    }
+
+    /**
+     * The square that gets one vertex label is a fixed size on screen, so it
+     * shrinks in local coordinates when the view zooms in.
+     */
+    @Test
+    public void tLabelCellFollowsScale() {
+        assertThat( VertexLabels.cellSize( Transform.scale( 2, 2 ) ) )
+                .isEqualTo( VertexLabels.CELL / 2 );
+        assertThat( VertexLabels.cellSize( new Rotate( 30 ) ) )
+                .isCloseTo( VertexLabels.CELL, within( 1e-9 ) );
+    }
+
+    /**
+     * A hidden line label lets go of its position bindings and gets them back,
+     * centered on the line, when it shows again.
+     */
+    @Test
+    public void tLabelPositionWhileVisible() {
+        FxRobot rob = new FxRobot();
+        Label label = triangulator.redLabel;
+
+        rob.interact( () -> label.setVisible( false ) );
+        assertThat( label.layoutXProperty().isBound() ).isFalse();
+        assertThat( label.layoutYProperty().isBound() ).isFalse();
+
+        rob.interact( () -> label.setVisible( true ) );
+        Line line = triangulator.redLine;
+        assertThat( label.layoutXProperty().isBound() ).isTrue();
+        assertThat( label.getLayoutX() + label.getWidth() / 2 ).isCloseTo(
+                ( line.getStartX() + line.getEndX() ) / 2, within( 0.1 ) );
+    }
+
+    /**
+     * In canvas mode the polygon is drawn on a canvas and the polygon node
+     * only picks the mouse; switching back restores the node.
+     */
+    @Test
+    public void tCanvasRenderMode() {
+        FxRobot rob = new FxRobot();
+        rob.interact( () -> triangulator.setRenderMode(
+                TriangulatorController.RenderMode.CANVAS ) );
+
+        assertThat( triangulator.getChildren() )
+                .filteredOn( n -> n instanceof PolygonCanvas ).hasSize( 1 );
+        assertThat( triangulator.polygon.getOpacity() ).isZero();
+
+        rob.interact( () -> triangulator.setRenderMode(
+                TriangulatorController.RenderMode.NODES ) );
+
+        assertThat( triangulator.getChildren() )
+                .filteredOn( n -> n instanceof PolygonCanvas ).isEmpty();
+        assertThat( triangulator.polygon.getOpacity() ).isEqualTo( 1.0 );
+    }
+
     /**
      * Test that lines can be added or removed from the active set.
      *
@@ -0,0 +1,62 @@
+package fxtriangulate;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check the incremental bookkeeping of the sum binding.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class ModifyableSumBindingTest {
+
+    /**
+     * Adding, changing and removing values keeps the sum right.
+     */
+    @Test
+    public void tAddChangeRemove() {
+        ModifyableSumBinding sum = new ModifyableSumBinding();
+        DoubleProperty a = new SimpleDoubleProperty( 1.5 );
+        DoubleProperty b = new SimpleDoubleProperty( 2.0 );
+
+        sum.add( a );
+        sum.add( b );
+        sum.add( b );
+        assertThat( sum.get() ).isCloseTo( 3.5, within( 1e-12 ) );
+
+        a.set( 10.0 );
+        b.set( 20.0 );
+        assertThat( sum.get() ).isCloseTo( 30.0, within( 1e-12 ) );
+
+        b.set( 5.0 );
+        sum.remove( b );
+        assertThat( sum.get() ).isCloseTo( 10.0, within( 1e-12 ) );
+
+        b.set( 100.0 );
+        assertThat( sum.get() ).isCloseTo( 10.0, within( 1e-12 ) );
+
+        sum.remove( a );
+        assertThat( sum.get() ).isEqualTo( 0.0 );
+    }
+
+    /**
+     * Many small updates on a large value do not make the sum drift.
+     */
+    @Test
+    public void tNoDrift() {
+        ModifyableSumBinding sum = new ModifyableSumBinding();
+        DoubleProperty big = new SimpleDoubleProperty( 1e9 );
+        DoubleProperty small = new SimpleDoubleProperty( 0.0 );
+        sum.add( big );
+        sum.add( small );
+
+        for ( int i = 1; i <= 10_000; i++ ) {
+            small.set( i * 0.1 );
+            sum.get();
+        }
+
+        assertThat( sum.get() ).isCloseTo( 1e9 + 1000.0, within( 1e-6 ) );
+    }
+}
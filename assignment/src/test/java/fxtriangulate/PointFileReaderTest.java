@@ -0,0 +1,87 @@
+package fxtriangulate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that point files in all formats read back the same points, in any
+ * chunk size.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class PointFileReaderTest {
+
+    @TempDir
+    Path dir;
+
+    static double[] readAll( Path file, int chunk ) throws Exception {
+        double[] all = new double[ 0 ];
+        try ( PointFileReader reader = PointFileReader.open( file ) ) {
+            double[] xy = new double[ 2 * chunk ];
+            int n;
+            while ( ( n = reader.read( xy ) ) >= 0 ) {
+                int old = all.length;
+                all = Arrays.copyOf( all, old + 2 * n );
+                System.arraycopy( xy, 0, all, old, 2 * n );
+            }
+            assertThat( reader.position() ).isEqualTo( reader.size() );
+        }
+        return all;
+    }
+
+    @Test
+    public void tCsv() throws Exception {
+        Path file = dir.resolve( "points.csv" );
+        Files.writeString( file, "x,y\n1.5,2\n-3e2,4.25\n10,0.001\n" );
+
+        assertThat( readAll( file, 1 ) )
+                .containsExactly( 1.5, 2.0, -300.0, 4.25, 10.0, 0.001 );
+        assertThat( readAll( file, 100 ) )
+                .containsExactly( 1.5, 2.0, -300.0, 4.25, 10.0, 0.001 );
+    }
+
+    /**
+     * The closing point of a WKT ring is not a vertex of its own.
+     */
+    @Test
+    public void tWkt() throws Exception {
+        Path file = dir.resolve( "points.wkt" );
+        Files.writeString( file, "POLYGON ((0 0, 10 0, 10 10, 0 0))" );
+
+        assertThat( readAll( file, 2 ) )
+                .containsExactly( 0.0, 0.0, 10.0, 0.0, 10.0, 10.0 );
+    }
+
+    @Test
+    public void tBinary() throws Exception {
+        Path file = dir.resolve( "points.bin" );
+        ByteBuffer b = ByteBuffer.allocate( 8 + 6 * 8 ).order( ByteOrder.LITTLE_ENDIAN );
+        b.putInt( PointFileReader.MAGIC ).putInt( 3 );
+        for ( int i = 0; i < 6; i++ ) {
+            b.putDouble( 1.5 * i );
+        }
+        Files.write( file, b.array() );
+
+        assertThat( readAll( file, 2 ) )
+                .containsExactly( 0.0, 1.5, 3.0, 4.5, 6.0, 7.5 );
+    }
+
+    /**
+     * The fast number parser gives exactly what Double.parseDouble gives.
+     */
+    @Test
+    public void tParse() {
+        for ( String s : new String[]{ "0", "-0.5", "123.456", "0.1", "1e-7",
+            "98765432109876543210", "3.141592653589793238", "1.7976931348623157E308" } ) {
+            assertThat( PointFileReader.parse( s ) )
+                    .as( s ).isEqualTo( Double.parseDouble( s ) );
+        }
+        assertThat( PointFileReader.parse( "POLYGON" ) ).isNaN();
+    }
+}
@@ -0,0 +1,75 @@
+package fxtriangulate;
+
+import java.util.Random;
+import javafx.collections.FXCollections;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the triangulation that follows the edits of a polygon equals the
+ * one built from scratch, both for a few moved vertices and for a polygon that
+ * is replaced as a whole.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class PolygonDelaunayTest {
+
+    static double[] random( Random r, int n ) {
+        double[] xy = new double[ 2 * n ];
+        for ( int i = 0; i < xy.length; i++ ) {
+            xy[ i ] = 1000 * r.nextDouble();
+        }
+        return xy;
+    }
+
+    /**
+     * Triangles of the points, built from scratch.
+     */
+    static String[] fresh( double[] xy ) {
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+        points.setAll( xy, 0, xy.length );
+        return PolygonPointsTest.sorted( new PolygonDelaunay( points ).triangles() )
+                .toArray( new String[ 0 ] );
+    }
+
+    @Test
+    public void tMoveVertices() {
+        Random r = new Random( 6 );
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+        PolygonDelaunay delaunay = new PolygonDelaunay( points );
+        double[] xy = random( r, 200 );
+        points.setAll( xy, 0, xy.length );
+
+        for ( int move = 0; move < 50; move++ ) {
+            points.set( r.nextInt( 200 ), 1000 * r.nextDouble(), 1000 * r.nextDouble() );
+        }
+
+        assertThat( PolygonPointsTest.sorted( delaunay.triangles() ) )
+                .containsExactlyInAnyOrder( fresh( points.toArray() ) );
+    }
+
+    @Test
+    public void tReplaceAll() {
+        Random r = new Random( 7 );
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+        PolygonDelaunay delaunay = new PolygonDelaunay( points );
+        double[] xy = random( r, 200 );
+        points.setAll( xy, 0, xy.length );
+        delaunay.triangles();
+
+        // a few points differ, then all of them, then fewer points
+        xy[ 10 ] += 5;
+        points.setAll( xy, 0, xy.length );
+        assertThat( PolygonPointsTest.sorted( delaunay.triangles() ) )
+                .containsExactlyInAnyOrder( fresh( xy ) );
+
+        xy = random( r, 200 );
+        points.setAll( xy, 0, xy.length );
+        assertThat( PolygonPointsTest.sorted( delaunay.triangles() ) )
+                .containsExactlyInAnyOrder( fresh( xy ) );
+
+        points.setAll( xy, 0, 300 );
+        assertThat( PolygonPointsTest.sorted( delaunay.triangles() ) )
+                .containsExactlyInAnyOrder( fresh( points.toArray() ) );
+    }
+}
@@ -0,0 +1,74 @@
+package fxtriangulate;
+
+import fxtriangulate.geometry.Geometry;
+import java.util.Random;
+import javafx.collections.FXCollections;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the corrected area and perimeter of moved vertices agree with a
+ * pass over the whole polygon.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class PolygonMetricsTest {
+
+    /**
+     * A regular polygon of n vertices around a far away center.
+     */
+    static double[] polygon( int n ) {
+        double[] xy = new double[ 2 * n ];
+        for ( int v = 0; v < n; v++ ) {
+            double a = 2 * Math.PI * v / n;
+            xy[ 2 * v ] = 1e5 + 1000 * Math.cos( a );
+            xy[ 2 * v + 1 ] = -1e5 + 1000 * Math.sin( a );
+        }
+        return xy;
+    }
+
+    static void assertSameAsShoelace( PolygonPoints points, PolygonMetrics metrics ) {
+        double[] xy = points.toArray();
+        double[] expected = Geometry.shoelace( xy, 0, xy.length / 2, new double[ 2 ] );
+        assertThat( metrics.areaBinding().get() )
+                .isCloseTo( expected[ 0 ], within( 1e-9 * expected[ 0 ] ) );
+        assertThat( metrics.perimeterBinding().get() )
+                .isCloseTo( expected[ 1 ], within( 1e-9 * expected[ 1 ] ) );
+    }
+
+    @Test
+    public void tMoveOneVertex() {
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+        PolygonMetrics metrics = new PolygonMetrics( points );
+        double[] xy = polygon( 100 );
+        points.setAll( xy, 0, xy.length );
+
+        points.set( 37, xy[ 74 ] + 250, xy[ 75 ] - 120 );
+
+        assertSameAsShoelace( points, metrics );
+    }
+
+    /**
+     * Enough moves to pass the resum interval a few times, checked before and
+     * after every resum.
+     */
+    @Test
+    public void tManyMoves() {
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+        PolygonMetrics metrics = new PolygonMetrics( points );
+        double[] xy = polygon( 100 );
+        points.setAll( xy, 0, xy.length );
+        Random r = new Random( 4 );
+
+        for ( int move = 1; move <= 3 * PolygonMetrics.RESUM_INTERVAL + 10; move++ ) {
+            int v = r.nextInt( 100 );
+            points.set( v, points.get( 2 * v ) + r.nextGaussian(),
+                    points.get( 2 * v + 1 ) + r.nextGaussian() );
+            if ( move % PolygonMetrics.RESUM_INTERVAL <= 1
+                    || move % PolygonMetrics.RESUM_INTERVAL == PolygonMetrics.RESUM_INTERVAL - 1 ) {
+                assertSameAsShoelace( points, metrics );
+            }
+        }
+        assertSameAsShoelace( points, metrics );
+    }
+}
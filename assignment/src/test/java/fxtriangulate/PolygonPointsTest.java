@@ -0,0 +1,98 @@
+package fxtriangulate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the primitive point buffer and the polygon points agree.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class PolygonPointsTest {
+
+    @Test
+    public void tSetAndAdd() {
+        ObservableList<Double> observable = FXCollections.observableArrayList();
+        PolygonPoints points = new PolygonPoints( observable );
+        PolygonMetrics metrics = new PolygonMetrics( points );
+
+        double[] xy = { -1, -1, 0, 0, 10, 0, 10, 10, -1, -1 };
+        points.setAll( xy, 2, 6 );
+        points.addAll( xy, 2, 2 );
+        points.addAll( new double[]{ 0, 10 }, 0, 2 );
+
+        assertThat( observable ).containsExactly( 0.0, 0.0, 10.0, 0.0, 10.0, 10.0,
+                0.0, 0.0, 0.0, 10.0 );
+        assertThat( points.toArray() ).containsExactly( 0, 0, 10, 0, 10, 10,
+                0, 0, 0, 10 );
+        assertThat( metrics.areaBinding().get() ).isCloseTo( 50.0, within( 1e-12 ) );
+    }
+
+    @Test
+    public void tSetVertex() {
+        ObservableList<Double> observable = FXCollections.observableArrayList();
+        PolygonPoints points = new PolygonPoints( observable );
+        PolygonMetrics metrics = new PolygonMetrics( points );
+        PolygonDelaunay delaunay = new PolygonDelaunay( points );
+        points.setAll( new double[]{ 0, 0, 10, 0, 10, 10, 0, 10 }, 0, 8 );
+        assertThat( metrics.areaBinding().get() ).isCloseTo( 100.0, within( 1e-12 ) );
+
+        points.set( 2, 20, 10 );
+
+        assertThat( observable ).containsExactly( 0.0, 0.0, 10.0, 0.0, 20.0, 10.0,
+                0.0, 10.0 );
+        assertThat( metrics.areaBinding().get() ).isCloseTo( 150.0, within( 1e-12 ) );
+        assertThat( metrics.perimeterBinding().get() )
+                .isCloseTo( 40.0 + Math.sqrt( 200 ), within( 1e-12 ) );
+        assertThat( sorted( delaunay.triangles() ) ).containsExactlyInAnyOrder(
+                "0,1,3", "1,2,3" );
+        assertThatThrownBy( () -> points.set( 4, 0, 0 ) )
+                .isInstanceOf( IndexOutOfBoundsException.class );
+    }
+
+    @Test
+    public void tWriteAround() {
+        ObservableList<Double> observable = FXCollections.observableArrayList();
+        PolygonPoints points = new PolygonPoints( observable );
+        points.setAll( new double[]{ 0, 0, 10, 0, 10, 10 }, 0, 6 );
+
+        observable.set( 4, 20.0 );
+        assertThat( points.get( 4 ) ).isEqualTo( 20.0 );
+
+        observable.addAll( 0.0, 10.0 );
+        assertThat( points.toArray() ).containsExactly( 0, 0, 10, 0, 20, 10, 0, 10 );
+    }
+
+    /**
+     * Triangles as sorted corner lists, to compare independent of order.
+     */
+    static List<String> sorted( int[] triangles ) {
+        List<String> result = new ArrayList<>();
+        for ( int t = 0; t < triangles.length; t += 3 ) {
+            int[] corners = Arrays.copyOfRange( triangles, t, t + 3 );
+            Arrays.sort( corners );
+            result.add( corners[ 0 ] + "," + corners[ 1 ] + "," + corners[ 2 ] );
+        }
+        return result;
+    }
+
+    @Test
+    public void tRange() {
+        PolygonPoints points = new PolygonPoints( FXCollections.observableArrayList() );
+
+        assertThatThrownBy( () -> points.setAll( new double[ 4 ], 1, 4 ) )
+                .isInstanceOf( IllegalArgumentException.class );
+        assertThatThrownBy( () -> points.addAll( new double[ 4 ], 0, 3 ) )
+                .isInstanceOf( IllegalArgumentException.class );
+
+        points.setAll( new double[]{ 1, 2, 3, 4 }, 0, 4 );
+        points.setAll( new double[]{ 1, 2 }, 0, 2 );
+        assertThatThrownBy( () -> points.get( 2 ) )
+                .isInstanceOf( IndexOutOfBoundsException.class );
+    }
+}
@@ -0,0 +1,146 @@
+package fxtriangulate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the grid index with the plain linear search.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class SnapIndexTest {
+
+    /**
+     * Minimal SnapTarget, no JavaFX node required.
+     */
+    static class Point implements SnapTarget {
+
+        double x, y;
+
+        Point( double x, double y ) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public SnapTarget focussed( boolean setFocus ) {
+            return this;
+        }
+
+        @Override
+        public double getLayoutX() {
+            return x;
+        }
+
+        @Override
+        public double getLayoutY() {
+            return y;
+        }
+    }
+
+    static List<Point> randomPoints( int n, long seed ) {
+        Random r = new Random( seed );
+        List<Point> result = new ArrayList<>();
+        for ( int i = 0; i < n; i++ ) {
+            result.add( new Point( r.nextDouble() * 1000, r.nextDouble() * 600 ) );
+        }
+        return result;
+    }
+
+    /**
+     * The grid must find the same nearest target as the linear search, also
+     * for queries outside the bounding box of the targets.
+     */
+    @Test
+    public void tNearestSameAsLinear() {
+        List<Point> points = randomPoints( 2000, 42 );
+        SnapIndex grid = new GridSnapIndex();
+        SnapIndex linear = new LinearSnapIndex();
+        grid.build( points );
+        linear.build( points );
+
+        Random r = new Random( 7 );
+        SoftAssertions.assertSoftly( softly -> {
+            for ( int i = 0; i < 500; i++ ) {
+                double x = r.nextDouble() * 1400 - 200;
+                double y = r.nextDouble() * 1000 - 200;
+                softly.assertThat( grid.nearest( x, y ) )
+                        .isEqualTo( linear.nearest( x, y ) );
+                softly.assertThat( grid.nearby( x, y ) )
+                        .isEqualTo( linear.nearby( x, y ) );
+            }
+        } );
+    }
+
+    /**
+     * Moving all targets and translating the index keeps the answers right.
+     */
+    @Test
+    public void tTranslate() {
+        List<Point> points = randomPoints( 100, 3 );
+        SnapIndex grid = new GridSnapIndex();
+        grid.build( points );
+
+        points.forEach( p -> {
+            p.x += 250;
+            p.y -= 40;
+        } );
+        grid.translate( 250, -40 );
+
+        SnapIndex linear = new LinearSnapIndex();
+        linear.build( points );
+
+        assertThat( grid.nearest( 300, 100 ) )
+                .isEqualTo( linear.nearest( 300, 100 ) );
+    }
+
+    /**
+     * Targets that move one at a time are found at their new place, also
+     * after a translation and after so many moved that the grid was built
+     * again.
+     */
+    @Test
+    public void tMoved() {
+        List<Point> points = randomPoints( 200, 11 );
+        SnapIndex grid = new GridSnapIndex();
+        SnapIndex linear = new LinearSnapIndex();
+        grid.build( points );
+        linear.build( points );
+        points.forEach( p -> p.x += 30 );
+        grid.translate( 30, 0 );
+
+        Random r = new Random( 5 );
+        SoftAssertions.assertSoftly( softly -> {
+            for ( int m = 0; m < 300; m++ ) {
+                int i = r.nextInt( points.size() );
+                points.get( i ).x = r.nextDouble() * 1200 - 100;
+                points.get( i ).y = r.nextDouble() * 800 - 100;
+                grid.moved( i );
+                linear.moved( i );
+
+                double x = r.nextDouble() * 1400 - 200;
+                double y = r.nextDouble() * 1000 - 200;
+                softly.assertThat( grid.nearest( x, y ) )
+                        .isEqualTo( linear.nearest( x, y ) );
+                softly.assertThat( grid.nearby( x, y ) )
+                        .isEqualTo( linear.nearby( x, y ) );
+            }
+        } );
+    }
+
+    /**
+     * An empty index finds nothing.
+     */
+    @Test
+    public void tEmpty() {
+        SnapIndex grid = new GridSnapIndex();
+        grid.build( List.of() );
+
+        assertThat( grid.nearest( 1, 1 ) ).isEmpty();
+        assertThat( grid.nearby( 1, 1 ) ).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package fxtriangulate;
+
+import fxtriangulate.geometry.MonotoneTriangulator;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that triangles share their edges and that a moving vertex only
+ * touches the triangles around it.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class TriangleWorkspaceTest {
+
+    /**
+     * A square of two triangles and a separate triangle.
+     */
+    TriangleWorkspace workspace() {
+        TriangleWorkspace w = new TriangleWorkspace();
+        w.addVertex( 0, 0 );
+        w.addVertex( 10, 0 );
+        w.addVertex( 10, 10 );
+        w.addVertex( 0, 10 );
+        w.addVertex( 100, 100 );
+        w.addVertex( 104, 100 );
+        w.addVertex( 100, 103 );
+        w.addTriangle( 0, 1, 2 );
+        w.addTriangle( 0, 2, 3 );
+        w.addTriangle( 4, 5, 6 );
+        return w;
+    }
+
+    @Test
+    public void tSharedEdges() {
+        TriangleWorkspace w = workspace();
+
+        assertThat( w.edgeCount() ).isEqualTo( 8 );
+        assertThat( w.lengthBinding( 2, 0 ) ).isSameAs( w.lengthBinding( 0, 2 ) );
+        assertThat( w.lengthBinding( 2, 0 ).get() ).isCloseTo( Math.sqrt( 200 ), within( 1e-9 ) );
+        assertThat( w.lengthBinding( 1, 3 ) ).isNull();
+        assertThat( w.totalAreaBinding().get() ).isCloseTo( 106.0, within( 1e-9 ) );
+    }
+
+    @Test
+    public void tMoveSharedVertex() {
+        TriangleWorkspace w = workspace();
+        w.totalAreaBinding().get();
+        for ( int t = 0; t < 3; t++ ) {
+            w.areaBinding( t ).get();
+        }
+
+        w.moveVertex( 2, 20, 10 );
+
+        assertThat( w.areaBinding( 0 ).isValid() ).isFalse();
+        assertThat( w.areaBinding( 1 ).isValid() ).isFalse();
+        assertThat( w.areaBinding( 2 ).isValid() ).isTrue();
+        assertThat( w.totalAreaBinding().get() ).isCloseTo( 156.0, within( 1e-9 ) );
+    }
+
+    @Test
+    public void tRemoveAndAddAll() {
+        TriangleWorkspace w = workspace();
+
+        w.removeTriangle( 1 );
+        assertThat( w.triangleCount() ).isEqualTo( 2 );
+        assertThat( w.edgeCount() ).isEqualTo( 6 );
+        assertThat( w.lengthBinding( 0, 2 ) ).isNotNull();
+        assertThat( w.totalAreaBinding().get() ).isCloseTo( 56.0, within( 1e-9 ) );
+
+        int first = w.addAll( MonotoneTriangulator.triangulate(
+                new double[]{ 0, 0, 5, 0, 5, 5, 0, 5 }, 0, 4 ) );
+        assertThat( first ).isEqualTo( 7 );
+        assertThat( w.triangleCount() ).isEqualTo( 4 );
+        assertThat( w.edgeCount() ).isEqualTo( 11 );
+        assertThat( w.totalAreaBinding().get() ).isCloseTo( 81.0, within( 1e-9 ) );
+    }
+}
@@ -0,0 +1,114 @@
+package fxtriangulate.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check the empty circle property and hull coverage after edits.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class DelaunayTriangulatorTest {
+
+    /**
+     * Assert counter clockwise triangles with no point inside their
+     * circumcircle, together covering the given hull area.
+     */
+    static void assertDelaunay( DelaunayTriangulator d, List<Integer> ids,
+            double hullArea ) {
+        int[] t = d.triangles();
+        double area = 0.0;
+        SoftAssertions softly = new SoftAssertions();
+        for ( int i = 0; i < t.length; i += 3 ) {
+            double ax = d.x( t[ i ] ), ay = d.y( t[ i ] );
+            double bx = d.x( t[ i + 1 ] ), by = d.y( t[ i + 1 ] );
+            double cx = d.x( t[ i + 2 ] ), cy = d.y( t[ i + 2 ] );
+            double cross = Geometry.cross( ax, ay, bx, by, cx, cy );
+            softly.assertThat( cross ).isPositive();
+            area += cross / 2;
+            for ( int id : ids ) {
+                double px = d.x( id ), py = d.y( id );
+                double adx = ax - px, ady = ay - py;
+                double bdx = bx - px, bdy = by - py;
+                double cdx = cx - px, cdy = cy - py;
+                double det = ( adx * adx + ady * ady ) * ( bdx * cdy - cdx * bdy )
+                        + ( bdx * bdx + bdy * bdy ) * ( cdx * ady - adx * cdy )
+                        + ( cdx * cdx + cdy * cdy ) * ( adx * bdy - bdx * ady );
+                softly.assertThat( det ).isLessThanOrEqualTo( 1e-6 );
+            }
+        }
+        softly.assertThat( area ).isCloseTo( hullArea, within( 1e-6 ) );
+        softly.assertAll();
+    }
+
+    /**
+     * A square with a point in the middle gives four triangles.
+     */
+    @Test
+    public void tSquareWithCenter() {
+        DelaunayTriangulator d = new DelaunayTriangulator();
+        List<Integer> ids = new ArrayList<>();
+        ids.add( d.insert( 0, 0 ) );
+        ids.add( d.insert( 10, 0 ) );
+        ids.add( d.insert( 10, 10 ) );
+        ids.add( d.insert( 0, 10 ) );
+        ids.add( d.insert( 5, 5 ) );
+
+        assertThat( d.triangles() ).hasSize( 12 );
+        assertDelaunay( d, ids, 100.0 );
+    }
+
+    /**
+     * Removing and moving points keeps the triangulation Delaunay.
+     */
+    @Test
+    public void tRemoveAndMove() {
+        DelaunayTriangulator d = new DelaunayTriangulator();
+        List<Integer> ids = new ArrayList<>();
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 200; i++ ) {
+            ids.add( d.insert( 1 + 98 * random.nextDouble(),
+                    1 + 98 * random.nextDouble() ) );
+        }
+        int[] corners = { d.insert( 0, 0 ), d.insert( 100, 0 ),
+            d.insert( 100, 100 ), d.insert( 0, 100 ) };
+        for ( int c : corners ) {
+            ids.add( c );
+        }
+        for ( int i = 0; i < 50; i++ ) {
+            d.remove( ids.remove( random.nextInt( 200 - i ) ) );
+        }
+        for ( int i = 0; i < 50; i++ ) {
+            d.move( ids.get( random.nextInt( 150 ) ),
+                    1 + 98 * random.nextDouble(), 1 + 98 * random.nextDouble() );
+        }
+
+        assertThat( d.size() ).isEqualTo( 154 );
+        assertDelaunay( d, ids, 10000.0 );
+    }
+
+    /**
+     * Points on a grid are full of collinear and cocircular points, and
+     * duplicates are kept until their original goes away.
+     */
+    @Test
+    public void tGridAndDuplicates() {
+        DelaunayTriangulator d = new DelaunayTriangulator();
+        List<Integer> ids = new ArrayList<>();
+        for ( int i = 0; i < 5; i++ ) {
+            for ( int j = 0; j < 5; j++ ) {
+                ids.add( d.insert( i, j ) );
+            }
+        }
+        int duplicate = d.insert( 0, 0 );
+        d.remove( ids.remove( 0 ) );
+        ids.add( duplicate );
+
+        assertThat( d.triangles() ).hasSize( 3 * 32 );
+        assertDelaunay( d, ids, 16.0 );
+    }
+}
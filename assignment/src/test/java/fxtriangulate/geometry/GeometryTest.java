@@ -0,0 +1,92 @@
+package fxtriangulate.geometry;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the JavaFX free geometry kernels.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class GeometryTest {
+
+    /**
+     * A 3-4-5 right angled triangle, as coordinate buffer.
+     */
+    static final double[] TRIANGLE = { 100, 100, 400, 100, 100, 500 };
+
+    @Test
+    public void tDistance() {
+        assertThat( Geometry.distance( 0, 0, 3, 4 ) ).isEqualTo( 5.0 );
+        assertThat( Geometry.distance( TRIANGLE, 1, 2 ) ).isEqualTo( 500.0 );
+    }
+
+    /**
+     * Heron and the cross product agree on the area.
+     */
+    @Test
+    public void tArea() {
+        assertThat( Geometry.heronArea( 300, 400, 500 ) )
+                .isCloseTo( 60000.0, within( 1e-9 ) );
+        assertThat( Geometry.triangleArea( TRIANGLE, 0, 1, 2 ) )
+                .isEqualTo( 60000.0 );
+        assertThat( Geometry.triangleArea( TRIANGLE, 2, 1, 0 ) )
+                .isEqualTo( 60000.0 );
+    }
+
+    /**
+     * Heron stays accurate for a needle shaped triangle, in any order of the
+     * sides, and gives 0 for sides that do not make a triangle. The expected
+     * area is exact for the given lengths.
+     */
+    @Test
+    public void tHeronNeedle() {
+        double expected = 10.000000077021038;
+
+        assertThat( Geometry.heronArea( 100000, 99999.99979, 0.00029 ) )
+                .isCloseTo( expected, within( 1e-12 ) );
+        assertThat( Geometry.heronArea( 0.00029, 100000, 99999.99979 ) )
+                .isCloseTo( expected, within( 1e-12 ) );
+        assertThat( Geometry.heronArea( 1, 2, 4 ) ).isZero();
+    }
+
+    @Test
+    public void tCentroid() {
+        double[] c = Geometry.centroid( TRIANGLE, 0, 3, new double[ 2 ] );
+
+        assertThat( c ).containsExactly( 200.0, 700.0 / 3 );
+    }
+
+    @Test
+    public void tPathLength() {
+        assertThat( Geometry.pathLength( TRIANGLE, 0, 3, false ) )
+                .isEqualTo( 800.0 );
+        assertThat( Geometry.pathLength( TRIANGLE, 0, 3, true ) )
+                .isEqualTo( 1200.0 );
+    }
+
+    @Test
+    public void tBuffer() {
+        CoordinateBuffer b = new CoordinateBuffer( 1 );
+        b.add( 1, 2 ).addAll( TRIANGLE, 2, 2 );
+
+        assertThat( b.size() ).isEqualTo( 3 );
+        assertThat( b.toArray() ).containsExactly( 1, 2, 400, 100, 100, 500 );
+        assertThatThrownBy( () -> b.x( 3 ) )
+                .isInstanceOf( IndexOutOfBoundsException.class );
+    }
+
+    /**
+     * Area and perimeter of a concave polygon, in either orientation.
+     */
+    @Test
+    public void tShoelace() {
+        double[] square = { 0, 0, 10, 0, 10, 10, 5, 5, 0, 10 };
+        double[] out = Geometry.shoelace( square, 0, 5, new double[ 2 ] );
+
+        assertThat( out[ 0 ] ).isCloseTo( 75.0, within( 1e-9 ) );
+        assertThat( out[ 1 ] ).isCloseTo( 30 + 2 * Math.sqrt( 50 ), within( 1e-9 ) );
+        assertThat( Geometry.polygonArea( new double[]{ 0, 10, 5, 5, 10, 10, 10, 0, 0, 0 }, 0, 5 ) )
+                .isCloseTo( 75.0, within( 1e-9 ) );
+    }
+}
@@ -0,0 +1,118 @@
+package fxtriangulate.geometry;
+
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that triangulations cover the polygon exactly.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class MonotoneTriangulatorTest {
+
+    /**
+     * The polygon of the surveyor demo, which has a reflex vertex.
+     */
+    static final double[] SURVEYOR = {
+        60.0, 10.0,
+        170.0, 10.0,
+        550.0, 123.0,
+        200.0, 120.0,
+        350.0, 160.0,
+        70.0, 450.0
+    };
+
+    /**
+     * A comb with the given number of teeth, with lots of horizontal edges
+     * and split and merge vertices.
+     */
+    static double[] comb( int teeth ) {
+        CoordinateBuffer b = new CoordinateBuffer();
+        b.add( 0, 0 ).add( 2 * teeth, 0 );
+        for ( int i = teeth - 1; i > 0; i-- ) {
+            b.add( 2 * i + 2, 10 ).add( 2 * i + 1, 10 )
+                    .add( 2 * i + 1, 2 ).add( 2 * i, 2 );
+        }
+        b.add( 2, 10 ).add( 0, 10 );
+        return b.toArray();
+    }
+
+    /**
+     * Assert n-2 non degenerate triangles whose areas and border lengths add
+     * up to those of the polygon.
+     */
+    static void assertCovers( double[] xy ) {
+        int n = xy.length / 2;
+        Triangulation t = MonotoneTriangulator.triangulate( xy, 0, n );
+        double[] expected = Geometry.shoelace( xy, 0, n, new double[ 2 ] );
+
+        double area = 0.0;
+        double border = 0.0;
+        SoftAssertions softly = new SoftAssertions();
+        for ( int i = 0; i < t.size(); i++ ) {
+            softly.assertThat( t.area( i ) ).isPositive();
+            area += t.area( i );
+            border += t.borderLength( i );
+        }
+        softly.assertThat( t.size() ).isEqualTo( n - 2 );
+        softly.assertThat( area ).isCloseTo( expected[ 0 ], within( 1e-6 ) );
+        softly.assertThat( border ).isCloseTo( expected[ 1 ], within( 1e-6 ) );
+        softly.assertAll();
+    }
+
+    @Test
+    public void tSurveyorPolygon() {
+        assertCovers( SURVEYOR );
+    }
+
+    /**
+     * Orientation of the input does not matter.
+     */
+    @Test
+    public void tClockwise() {
+        double[] reversed = new double[ SURVEYOR.length ];
+        for ( int i = 0; i < SURVEYOR.length; i += 2 ) {
+            reversed[ SURVEYOR.length - 2 - i ] = SURVEYOR[ i ];
+            reversed[ SURVEYOR.length - 1 - i ] = SURVEYOR[ i + 1 ];
+        }
+        assertCovers( reversed );
+    }
+
+    @ParameterizedTest
+    @ValueSource( ints = { 1, 2, 5, 20 } )
+    public void tComb( int teeth ) {
+        double[] xy = comb( teeth );
+        assertCovers( xy );
+
+        // upside down, the split vertices become merge vertices
+        for ( int i = 1; i < xy.length; i += 2 ) {
+            xy[ i ] = -xy[ i ];
+        }
+        assertCovers( xy );
+    }
+
+    /**
+     * Collinear fence posts on the border do not produce slivers.
+     */
+    @Test
+    public void tFencePosts() {
+        CoordinateBuffer b = new CoordinateBuffer();
+        for ( int i = 0; i < 5; i++ ) {
+            b.add( 2 * i, 0 );
+        }
+        for ( int i = 0; i < 5; i++ ) {
+            b.add( 10, 2 * i );
+        }
+        b.add( 10, 10 ).add( 0, 10 );
+        assertCovers( b.toArray() );
+    }
+
+    @Test
+    public void tTooSmall() {
+        assertThat( MonotoneTriangulator.triangulate( new double[]{ 1, 2, 3, 4 }, 0, 2 )
+                .size() ).isZero();
+    }
+}
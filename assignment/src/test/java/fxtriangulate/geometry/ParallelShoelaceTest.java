@@ -0,0 +1,66 @@
+package fxtriangulate.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the chunked sums agree with the single pass and do not depend on
+ * the number of threads.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class ParallelShoelaceTest {
+
+    /**
+     * A regular polygon far away from the origin, behind two padding values.
+     */
+    static double[] circle( int n ) {
+        double[] xy = new double[ 2 + 2 * n ];
+        for ( int i = 0; i < n; i++ ) {
+            double a = 2 * Math.PI * i / n;
+            xy[ 2 + 2 * i ] = 1e6 + 100 * Math.cos( a );
+            xy[ 3 + 2 * i ] = 1e6 + 100 * Math.sin( a );
+        }
+        return xy;
+    }
+
+    @Test
+    public void tSameAsSinglePass() {
+        double[] square = { 0, 0, 10, 0, 10, 10, 5, 5, 0, 10 };
+        double[] out = ParallelShoelace.shoelace( square, 0, 5, new double[ 2 ] );
+
+        assertThat( out[ 0 ] ).isCloseTo( 75.0, within( 1e-9 ) );
+        assertThat( out[ 1 ] ).isCloseTo( 30 + 2 * Math.sqrt( 50 ), within( 1e-9 ) );
+
+        int n = 5 * ParallelShoelace.CHUNK + 17;
+        double[] xy = circle( n );
+        double[] expected = Geometry.shoelace( xy, 2, n, new double[ 2 ] );
+        double[] actual = ParallelShoelace.shoelace( xy, 2, n, new double[ 2 ] );
+        assertThat( actual[ 0 ] ).isCloseTo( expected[ 0 ], within( 1e-6 ) );
+        assertThat( actual[ 1 ] ).isCloseTo( expected[ 1 ], within( 1e-6 ) );
+    }
+
+    @Test
+    public void tDeterministic() {
+        int n = 7 * ParallelShoelace.CHUNK + 3;
+        double[] xy = circle( n );
+        double[] edges = new double[ n ];
+        double[] reference = null;
+        for ( int threads : new int[]{ 1, 2, 3, 8 } ) {
+            ForkJoinPool pool = new ForkJoinPool( threads );
+            try {
+                double[] out = ParallelShoelace.sums( pool, xy, 2, n, edges,
+                        new double[ 2 ] );
+                if ( reference == null ) {
+                    reference = out;
+                }
+                assertThat( out ).as( "%d threads", threads )
+                        .containsExactly( reference );
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertThat( edges[ n - 1 ] ).isEqualTo( Geometry.distance( xy, n, 1 ) );
+    }
+}
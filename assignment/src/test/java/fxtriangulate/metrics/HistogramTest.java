@@ -0,0 +1,58 @@
+package fxtriangulate.metrics;
+
+import java.util.Random;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check bucket precision, percentiles and reset of the latency histogram.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class HistogramTest {
+
+    @Test
+    public void tBucketPrecision() {
+        Random r = new Random( 21 );
+        for ( int i = 0; i < 100_000; i++ ) {
+            long v = r.nextLong() >>> ( 1 + r.nextInt( 63 ) );
+            int b = Histogram.bucket( v );
+            long upper = Histogram.upperBound( b );
+
+            assertThat( b ).isBetween( 0, Histogram.BUCKETS - 1 );
+            assertThat( upper ).as( "%d", v ).isGreaterThanOrEqualTo( v );
+            assertThat( (double) ( upper - v ) ).as( "%d", v )
+                    .isLessThanOrEqualTo( v / 8.0 );
+        }
+        assertThat( Histogram.bucket( Long.MAX_VALUE ) ).isEqualTo( Histogram.BUCKETS - 1 );
+    }
+
+    @Test
+    public void tPercentiles() {
+        Histogram h = new Histogram( "test" );
+        for ( long v = 1; v <= 1000; v++ ) {
+            h.record( v * 1000 );
+        }
+
+        assertThat( h.count() ).isEqualTo( 1000 );
+        assertThat( h.mean() ).isEqualTo( 500_500.0 );
+        assertThat( h.max() ).isEqualTo( 1_000_000 );
+        assertThat( h.percentile( 50 ) ).isBetween( 500_000L, 500_000L * 9 / 8 );
+        assertThat( h.percentile( 100 ) ).isEqualTo( 1_000_000 );
+
+        h.reset();
+        assertThat( h.count() ).isZero();
+        assertThat( h.percentile( 50 ) ).isZero();
+    }
+
+    @Test
+    public void tRegistry() {
+        Counter c = Metrics.counter( "test.counter" );
+        c.add( 3 );
+        c.increment();
+
+        assertThat( Metrics.counter( "test.counter" ) ).isSameAs( c );
+        assertThat( c.get() ).isEqualTo( Metrics.ENABLED ? 4 : 0 );
+        assertThat( Metrics.snapshot() ).contains( "test.counter " + c.get() );
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.util.Arrays;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks and write the results as JSON, so runs can be compared
+ * to find regressions.
+ *
+ * The first argument, if it ends with .json, is the result file. All other
+ * arguments are passed on to JMH, e.g. a regular expression to select
+ * benchmarks, or -p size=1000 to fix a parameter.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+public class RunBenchmarks {
+
+    public static void main( String[] args ) throws Exception {
+        String result = "jmh-result.json";
+        if ( args.length > 0 && args[ 0 ].endsWith( ".json" ) ) {
+            result = args[ 0 ];
+            args = Arrays.copyOfRange( args, 1, args.length );
+        }
+        Options options = new OptionsBuilder()
+                .parent( new CommandLineOptions( args ) )
+                .resultFormat( ResultFormatType.JSON )
+                .result( result )
+                .build();
+        new Runner( options ).run();
+    }
+}
@@ -0,0 +1,82 @@
+package fxtriangulate;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.binding.DoubleBinding;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of dragging a corner of the triangle: the move invalidates the length
+ * and area bindings, reading them recomputes the chain.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BindingChainBenchmark {
+
+    private Circle red;
+    private DoubleBinding length;
+    private DoubleBinding area;
+    private double step = 1.0;
+
+    @Setup
+    public void setup() {
+        BindingBusiness bb = new BindingBusiness();
+        red = new Circle( 100, 100, 10 );
+        Circle green = new Circle( 400, 120, 10 );
+        Circle blue = new Circle( 250, 380, 10 );
+        Line redLine = line( "redLine" );
+        bb.setCornerCirclesAndConnectLines( red, green, blue, redLine,
+                line( "greenLine" ), line( "blueLine" ) );
+        length = bb.lengthBinding( "blueLine" );
+        area = bb.areaBinding();
+        length.get();
+        area.get();
+    }
+
+    private static Line line( String id ) {
+        Line line = new Line();
+        line.setId( id );
+        return line;
+    }
+
+    private void moveRed() {
+        step = -step;
+        red.setCenterX( red.getCenterX() + step );
+    }
+
+    @Benchmark
+    public double moveAndLength() {
+        moveRed();
+        return length.get();
+    }
+
+    @Benchmark
+    public double moveAndArea() {
+        moveRed();
+        return area.get();
+    }
+
+    /**
+     * Reading a valid binding, the lower bound for the benchmarks above.
+     */
+    @Benchmark
+    public double validArea() {
+        return area.get();
+    }
+}
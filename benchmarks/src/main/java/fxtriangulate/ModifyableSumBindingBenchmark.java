@@ -0,0 +1,67 @@
+package fxtriangulate;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding, removing and changing one term of a sum over a growing number of
+ * terms. With incremental bookkeeping the cost should not grow with the size.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ModifyableSumBindingBenchmark {
+
+    @Param( { "10", "1000", "100000" } )
+    int size;
+
+    private ModifyableSumBinding sum;
+    private DoubleProperty[] terms;
+    private DoubleProperty extra;
+    private int next;
+
+    @Setup
+    public void setup() {
+        sum = new ModifyableSumBinding();
+        terms = new DoubleProperty[ size ];
+        for ( int i = 0; i < size; i++ ) {
+            terms[ i ] = new SimpleDoubleProperty( i );
+            sum.add( terms[ i ] );
+        }
+        extra = new SimpleDoubleProperty( 42.0 );
+        sum.get();
+    }
+
+    @Benchmark
+    public double addRemove() {
+        sum.add( extra );
+        double withExtra = sum.get();
+        sum.remove( extra );
+        return withExtra + sum.get();
+    }
+
+    @Benchmark
+    public double changeOne() {
+        DoubleProperty term = terms[ next ];
+        next = ( next + 1 ) % size;
+        term.set( term.get() + 1.0 );
+        return sum.get();
+    }
+}
@@ -0,0 +1,107 @@
+package fxtriangulate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Nearest snap target search over N targets, per snap index implementation.
+ *
+ * @author Pieter van den Hombergh / Richard van den Ham
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SnapIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param( { "100", "10000", "100000" } )
+    int targets;
+
+    @Param( { "grid", "linear" } )
+    String index;
+
+    private SnapIndex snapIndex;
+    private List<SnapTarget> points;
+    private final double[] queries = new double[ 2 * QUERIES ];
+    private int next;
+
+    /**
+     * A snap target without a node behind it.
+     */
+    static final class Point implements SnapTarget {
+
+        private final double x, y;
+
+        Point( double x, double y ) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public SnapTarget focussed( boolean setFocus ) {
+            return this;
+        }
+
+        @Override
+        public double getLayoutX() {
+            return x;
+        }
+
+        @Override
+        public double getLayoutY() {
+            return y;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        double side = 100 * Math.sqrt( targets );
+        points = new ArrayList<>( targets );
+        for ( int i = 0; i < targets; i++ ) {
+            points.add( new Point( side * random.nextDouble(),
+                    side * random.nextDouble() ) );
+        }
+        for ( int i = 0; i < queries.length; i++ ) {
+            queries[ i ] = side * random.nextDouble();
+        }
+        snapIndex = "grid".equals( index ) ? new GridSnapIndex() : new LinearSnapIndex();
+        snapIndex.build( points );
+    }
+
+    @Benchmark
+    public Optional<SnapTarget> nearest() {
+        next = ( next + 2 ) % queries.length;
+        return snapIndex.nearest( queries[ next ], queries[ next + 1 ] );
+    }
+
+    @Benchmark
+    public Optional<SnapTarget> nearby() {
+        next = ( next + 2 ) % queries.length;
+        return snapIndex.nearby( queries[ next ], queries[ next + 1 ] );
+    }
+
+    @Benchmark
+    public SnapIndex build() {
+        snapIndex.build( points );
+        return snapIndex;
+    }
+}
@@ -0,0 +1,68 @@
+package surveyor;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.binding.DoubleBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keeping the total area up to date while measurements come and go, with
+ * large measurement lists.
+ *
+ * The JMH Measurement annotation is written in full, because its simple name
+ * would hide {@link Measurement} of this package.
+ *
+ * @author Pieter van den Hombergh
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@org.openjdk.jmh.annotations.Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SurveyorTotalsBenchmark {
+
+    @Param( { "1000", "100000" } )
+    int size;
+
+    private SurveyorBusiness business;
+    private DoubleBinding total;
+    private final Measurement measurement = Measurement.builder()
+            .area( 12.5 ).length( 3.0 ).build();
+
+    @Setup
+    public void setup() {
+        business = new SurveyorBusiness();
+        for ( int i = 0; i < size; i++ ) {
+            business.accept( Measurement.builder()
+                    .area( i % 100 ).length( i % 10 ).build() );
+        }
+        total = business.totalAreaBinding();
+        total.get();
+    }
+
+    /**
+     * Accept a measurement, read the total, drop the measurement again and
+     * read the total once more.
+     */
+    @Benchmark
+    public double acceptAndRemove() {
+        business.accept( measurement );
+        double withNew = total.get();
+        business.measurements.remove( 0 );
+        return withNew + total.get();
+    }
+
+    @Benchmark
+    public double validTotal() {
+        return total.get();
+    }
+}
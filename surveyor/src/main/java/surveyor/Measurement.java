@@ -12,10 +12,14 @@ public class Measurement {
 
     final double length;
     final double area;
+    final long timestamp;
+    final int triangleId;
 
-    private Measurement( double length, double area ) {
+    private Measurement( double length, double area, long timestamp, int triangleId ) {
         this.length = length;
         this.area = area;
+        this.timestamp = timestamp;
+        this.triangleId = triangleId;
     }
 
     public double getLength() {
@@ -26,10 +30,60 @@ public class Measurement {
         return area;
     }
 
+    /**
+     * When the measurement was taken.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The triangle of an automatic triangulation this measurement belongs to.
+     *
+     * @return the triangle index, -1 for a manual measurement
+     */
+    public int getTriangleId() {
+        return triangleId;
+    }
+
+    /**
+     * Measurements are equal when all their values are, so a measurement read
+     * twice from a {@link MeasurementStore} is the same measurement.
+     *
+     * @param o to compare with
+     * @return true if o is a measurement with the same values
+     */
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !( o instanceof Measurement ) ) {
+            return false;
+        }
+        Measurement m = (Measurement) o;
+        return Double.compare( length, m.length ) == 0
+                && Double.compare( area, m.area ) == 0
+                && timestamp == m.timestamp
+                && triangleId == m.triangleId;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Double.hashCode( length );
+        h = 31 * h + Double.hashCode( area );
+        h = 31 * h + Long.hashCode( timestamp );
+        return 31 * h + triangleId;
+    }
+
     public static class Builder {
 
         private double area;
         private double length;
+        private long timestamp = System.currentTimeMillis();
+        private int triangleId = -1;
 
         public Builder area( double area ) {
             this.area = area;
@@ -41,8 +95,18 @@ public class Measurement {
             return this;
         }
 
+        public Builder timestamp( long timestamp ) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder triangleId( int triangleId ) {
+            this.triangleId = triangleId;
+            return this;
+        }
+
         public Measurement build() {
-            return new Measurement( length, area );
+            return new Measurement( length, area, timestamp, triangleId );
         }
     }
     
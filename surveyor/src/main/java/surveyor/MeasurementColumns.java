@@ -0,0 +1,119 @@
+package surveyor;
+
+import fxtriangulate.FixedDecimalBinding;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.DoubleFunction;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+
+/**
+ * The columns of the measurement table.
+ *
+ * The columns cannot be sorted: the table shows the store itself, which
+ * only grows at the front, so the order of the rows is the order of the
+ * measurements, newest first.
+ *
+ * The columns have no cell value factory. A cell reads its value straight from
+ * the column of the store at the index of the cell, so showing a cell creates
+ * neither a measurement nor a wrapper around its value. The cells keep the
+ * formatted text of the value they show, so a cell that is updated with the
+ * same value does not format it again.
+ *
+ * @author Pieter van den Hombergh
+ */
+final class MeasurementColumns {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter
+            .ofPattern( "HH:mm:ss" ).withZone( ZoneId.systemDefault() );
+
+    /**
+     * Reads a value of the measurement at a list index from the store.
+     */
+    @FunctionalInterface
+    interface Value {
+
+        double read( MeasurementStore store, int index );
+    }
+
+    /**
+     * A column: header, value and format. Resolved once.
+     */
+    static final class Definition {
+
+        final String name;
+        final Value value;
+        final DoubleFunction<String> format;
+
+        Definition( String name, Value value, DoubleFunction<String> format ) {
+            this.name = name;
+            this.value = value;
+            this.format = format;
+        }
+    }
+
+    static final List<Definition> DEFINITIONS = List.of(
+            new Definition( "length", MeasurementStore::length,
+                    v -> FixedDecimalBinding.format( v, 2 ) ),
+            new Definition( "area", MeasurementStore::area,
+                    v -> FixedDecimalBinding.format( v, 2 ) ),
+            new Definition( "triangle", MeasurementStore::triangleId,
+                    v -> v < 0 ? "" : Integer.toString( (int) v ) ),
+            new Definition( "time", MeasurementStore::timestamp,
+                    v -> TIME.format( Instant.ofEpochMilli( (long) v ) ) )
+    );
+
+    private MeasurementColumns() {
+    }
+
+    /**
+     * Create the table column for a definition.
+     *
+     * @param d     the definition
+     * @param store the items of the table
+     * @return the column
+     */
+    static TableColumn<Measurement, Number> column( Definition d,
+            MeasurementStore store ) {
+        TableColumn<Measurement, Number> tc = new TableColumn<>( d.name );
+        tc.setSortable( false );
+        tc.setCellFactory( c -> new FormattedCell( d, store ) );
+        return tc;
+    }
+
+    /**
+     * A cell that reads its value from the store by its index and formats it
+     * only when it changes.
+     */
+    static final class FormattedCell extends TableCell<Measurement, Number> {
+
+        private final Definition definition;
+        private final MeasurementStore store;
+        private long shownBits;
+        private String text;
+
+        FormattedCell( Definition definition, MeasurementStore store ) {
+            this.definition = definition;
+            this.store = store;
+        }
+
+        @Override
+        protected void updateItem( Number item, boolean empty ) {
+            super.updateItem( item, empty );
+            int index = getIndex();
+            if ( empty || index < 0 || index >= store.size() ) {
+                setText( null );
+                return;
+            }
+            double value = definition.value.read( store, index );
+            long bits = Double.doubleToLongBits( value );
+            if ( text == null || bits != shownBits ) {
+                shownBits = bits;
+                text = definition.format.apply( value );
+            }
+            setText( text );
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package surveyor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file of measurements, used as an append-only journal.
+ *
+ * The file is an 8 byte header, magic number and record size, followed by
+ * fixed size records of length, area, timestamp and triangle id, little
+ * endian. Every accepted measurement is appended as one record, so nothing is
+ * lost on exit. Loading maps the file into memory and copies the records
+ * straight into the columns of a {@link MeasurementStore}, without parsing
+ * text.
+ *
+ * A record that was cut off by a crash is dropped when the file is opened.
+ *
+ * @author Pieter van den Hombergh
+ */
+final class MeasurementFile implements Closeable {
+
+    static final int MAGIC = 0x53564d31; // SVM1
+    static final int HEADER = 8;
+    static final int RECORD = 8 + 8 + 8 + 4;
+
+    /**
+     * Most records a store can hold, and most records mapped at a time.
+     */
+    static final int MAX_RECORDS = Integer.MAX_VALUE - 8;
+    static final int WINDOW = Integer.MAX_VALUE / RECORD;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate( 64 * RECORD )
+            .order( ByteOrder.LITTLE_ENDIAN );
+
+    private MeasurementFile( FileChannel channel ) {
+        this.channel = channel;
+    }
+
+    /**
+     * Open a journal for appending, creating the file if needed.
+     *
+     * @param file to open
+     * @return the journal
+     * @throws IOException if the file cannot be opened or is no measurement
+     * file
+     */
+    static MeasurementFile open( Path file ) throws IOException {
+        FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE );
+        try {
+            long size = channel.size();
+            if ( size < HEADER ) {
+                writeHeader( channel );
+            } else {
+                checkHeader( channel );
+                channel.truncate( HEADER + ( size - HEADER ) / RECORD * RECORD );
+            }
+            channel.position( channel.size() );
+            return new MeasurementFile( channel );
+        } catch ( IOException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append the newest count measurements of a store, oldest first.
+     *
+     * @param store with the measurements
+     * @param count number of newest measurements to append
+     * @throws IOException on write failure
+     */
+    void append( MeasurementStore store, int count ) throws IOException {
+        for ( int i = count - 1; i >= 0; i-- ) {
+            if ( buffer.remaining() < RECORD ) {
+                flush();
+            }
+            buffer.putDouble( store.length( i ) )
+                    .putDouble( store.area( i ) )
+                    .putLong( store.timestamp( i ) )
+                    .putInt( store.triangleId( i ) );
+        }
+        flush();
+    }
+
+    /**
+     * Drop all records.
+     *
+     * @throws IOException on write failure
+     */
+    void truncate() throws IOException {
+        channel.truncate( HEADER );
+        channel.position( HEADER );
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while ( buffer.hasRemaining() ) {
+            channel.write( buffer );
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Load all records of a file into a store, in one change of the store.
+     *
+     * A file shorter than the header is empty, as for {@link #open}. The file
+     * is mapped in windows of at most {@link #WINDOW} records, as a mapping
+     * is limited to 2 GB.
+     *
+     * @param file  to load
+     * @param store to append to
+     * @throws IOException if the file cannot be read, is no measurement file
+     * or has more records than a store can hold
+     */
+    static void load( Path file, MeasurementStore store ) throws IOException {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+            long size = channel.size();
+            if ( size < HEADER ) {
+                return;
+            }
+            checkHeader( channel );
+            long records = ( size - HEADER ) / RECORD;
+            if ( records > MAX_RECORDS ) {
+                throw new IOException( file + " has " + records
+                        + " measurements, more than " + MAX_RECORDS );
+            }
+            int count = (int) records;
+            double[] length = new double[ count ];
+            double[] area = new double[ count ];
+            long[] timestamp = new long[ count ];
+            int[] triangleId = new int[ count ];
+            for ( int from = 0, to; from < count; from = to ) {
+                to = (int) Math.min( count, (long) from + WINDOW );
+                MappedByteBuffer map = channel.map( FileChannel.MapMode.READ_ONLY,
+                        HEADER + (long) from * RECORD, (long) ( to - from ) * RECORD );
+                map.order( ByteOrder.LITTLE_ENDIAN );
+                for ( int i = from; i < to; i++ ) {
+                    length[ i ] = map.getDouble();
+                    area[ i ] = map.getDouble();
+                    timestamp[ i ] = map.getLong();
+                    triangleId[ i ] = map.getInt();
+                }
+            }
+            store.appendAll( length, area, timestamp, triangleId, count );
+        }
+    }
+
+    /**
+     * Write all measurements of a store to a file, replacing its content.
+     *
+     * @param file  to write
+     * @param store with the measurements
+     * @throws IOException on write failure
+     */
+    static void write( Path file, MeasurementStore store ) throws IOException {
+        Path tmp = file.resolveSibling( file.getFileName() + ".tmp" );
+        try ( FileChannel channel = FileChannel.open( tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE ) ) {
+            writeHeader( channel );
+            int count = store.size();
+            // oldest first, in windows like load
+            for ( int from = 0, to; from < count; from = to ) {
+                to = (int) Math.min( count, (long) from + WINDOW );
+                MappedByteBuffer map = channel.map( FileChannel.MapMode.READ_WRITE,
+                        HEADER + (long) from * RECORD, (long) ( to - from ) * RECORD );
+                map.order( ByteOrder.LITTLE_ENDIAN );
+                for ( int i = count - 1 - from; i >= count - to; i-- ) {
+                    map.putDouble( store.length( i ) )
+                            .putDouble( store.area( i ) )
+                            .putLong( store.timestamp( i ) )
+                            .putInt( store.triangleId( i ) );
+                }
+                map.force();
+            }
+        }
+        Files.move( tmp, file, StandardCopyOption.REPLACE_EXISTING );
+    }
+
+    private static void writeHeader( FileChannel channel ) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate( HEADER ).order( ByteOrder.LITTLE_ENDIAN );
+        header.putInt( MAGIC ).putInt( RECORD ).flip();
+        channel.truncate( 0 );
+        channel.write( header, 0 );
+    }
+
+    private static void checkHeader( FileChannel channel ) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate( HEADER ).order( ByteOrder.LITTLE_ENDIAN );
+        while ( header.hasRemaining() ) {
+            if ( channel.read( header, header.position() ) < 0 ) {
+                break;
+            }
+        }
+        header.flip();
+        if ( header.remaining() < HEADER || header.getInt() != MAGIC
+                || header.getInt() != RECORD ) {
+            throw new IOException( "not a measurement file" );
+        }
+    }
+}
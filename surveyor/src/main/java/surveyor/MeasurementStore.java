@@ -0,0 +1,333 @@
+package surveyor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Measurement history in columns of primitives.
+ *
+ * Every measurement is a row in parallel arrays for length, area, timestamp
+ * and triangle id, so a row costs 28 bytes and no object. Rows are appended at
+ * the end of the arrays in O(1) amortized time.
+ *
+ * As an ObservableList the store shows the rows newest first, so the view a
+ * TableView gets has the latest measurement on top without inserting at the
+ * front of an array. Measurement objects are only created for the rows that
+ * are actually read; they are values, so reading a row twice gives two equal
+ * measurements.
+ *
+ * @author Pieter van den Hombergh
+ */
+class MeasurementStore extends ObservableListBase<Measurement> {
+
+    private double[] length = new double[ 64 ];
+    private double[] area = new double[ 64 ];
+    private long[] timestamp = new long[ 64 ];
+    private int[] triangleId = new int[ 64 ];
+    private int size;
+
+    /**
+     * The measurement read last and its row. A table row and each of its
+     * cells read the same element one after the other, so they share one
+     * object.
+     */
+    private Measurement cached;
+    private int cachedRow = -1;
+
+    /**
+     * Number of batches running.
+     */
+    private int batches;
+
+    /**
+     * Append a measurement, which becomes element 0 of the list.
+     *
+     * @param length     border length
+     * @param area       area
+     * @param timestamp  time of the measurement in milliseconds
+     * @param triangleId triangle in a triangulation, -1 if none
+     */
+    void append( double length, double area, long timestamp, int triangleId ) {
+        ensureCapacity( size + 1 );
+        this.length[ size ] = length;
+        this.area[ size ] = area;
+        this.timestamp[ size ] = timestamp;
+        this.triangleId[ size ] = triangleId;
+        size++;
+        beginChange();
+        nextAdd( 0, 1 );
+        endChange();
+    }
+
+    /**
+     * Append many measurements in one change. The arrays hold the oldest
+     * measurement first, so the last one becomes element 0 of the list.
+     *
+     * @param length     border lengths
+     * @param area       areas
+     * @param timestamp  times of the measurements
+     * @param triangleId triangle ids
+     * @param count      number of measurements to take from the arrays
+     */
+    void appendAll( double[] length, double[] area, long[] timestamp,
+            int[] triangleId, int count ) {
+        if ( count == 0 ) {
+            return;
+        }
+        ensureCapacity( size + count );
+        System.arraycopy( length, 0, this.length, size, count );
+        System.arraycopy( area, 0, this.area, size, count );
+        System.arraycopy( timestamp, 0, this.timestamp, size, count );
+        System.arraycopy( triangleId, 0, this.triangleId, size, count );
+        size += count;
+        beginChange();
+        nextAdd( 0, count );
+        endChange();
+    }
+
+    /**
+     * Append all measurements of another store in one change, keeping their
+     * order.
+     *
+     * @param other store to take the measurements from
+     */
+    void appendAll( MeasurementStore other ) {
+        appendAll( other.length, other.area, other.timestamp, other.triangleId,
+                other.size );
+    }
+
+    private void ensureCapacity( int capacity ) {
+        if ( capacity > length.length ) {
+            capacity = Math.max( capacity, 2 * length.length );
+            length = Arrays.copyOf( length, capacity );
+            area = Arrays.copyOf( area, capacity );
+            timestamp = Arrays.copyOf( timestamp, capacity );
+            triangleId = Arrays.copyOf( triangleId, capacity );
+        }
+    }
+
+    /**
+     * Append a measurement object.
+     *
+     * @param m to append
+     */
+    void append( Measurement m ) {
+        append( m.getLength(), m.getArea(), m.getTimestamp(), m.getTriangleId() );
+    }
+
+    /**
+     * Run several appends and removes as one change of the list.
+     *
+     * @param edits the appends and removes
+     */
+    void batch( Runnable edits ) {
+        batches++;
+        beginChange();
+        try {
+            edits.run();
+        } finally {
+            endChange();
+            batches--;
+        }
+    }
+
+    double length( int index ) {
+        return length[ row( index ) ];
+    }
+
+    double area( int index ) {
+        return area[ row( index ) ];
+    }
+
+    long timestamp( int index ) {
+        return timestamp[ row( index ) ];
+    }
+
+    int triangleId( int index ) {
+        return triangleId[ row( index ) ];
+    }
+
+    /**
+     * Row in the columns of list element index, newest first.
+     */
+    private int row( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "index " + index + ", size " + size );
+        }
+        return size - 1 - index;
+    }
+
+    @Override
+    public Measurement get( int index ) {
+        int row = row( index );
+        if ( row != cachedRow ) {
+            cached = measurement( length, area, timestamp, triangleId, row );
+            cachedRow = row;
+        }
+        return cached;
+    }
+
+    private static Measurement measurement( double[] length, double[] area,
+            long[] timestamp, int[] triangleId, int row ) {
+        return Measurement.builder()
+                .length( length[ row ] )
+                .area( area[ row ] )
+                .timestamp( timestamp[ row ] )
+                .triangleId( triangleId[ row ] )
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appending at the front of the list is the only insert, because the
+     * front is the end of the columns.
+     */
+    @Override
+    public void add( int index, Measurement m ) {
+        if ( index != 0 ) {
+            throw new UnsupportedOperationException( "measurements are added at index 0" );
+        }
+        append( m );
+    }
+
+    @Override
+    public Measurement remove( int index ) {
+        Measurement removed = get( index );
+        int row = row( index );
+        int tail = size - 1 - row;
+        System.arraycopy( length, row + 1, length, row, tail );
+        System.arraycopy( area, row + 1, area, row, tail );
+        System.arraycopy( timestamp, row + 1, timestamp, row, tail );
+        System.arraycopy( triangleId, row + 1, triangleId, row, tail );
+        size--;
+        cachedRow = -1;
+        beginChange();
+        nextRemove( index, removed );
+        endChange();
+        return removed;
+    }
+
+    /**
+     * Remove all rows. The store starts on new columns, so the old ones stay
+     * as they are and the listeners get a view on them as the removed rows.
+     * The change is fired directly: the change builder of the list would copy
+     * the removed rows, making a measurement object per row. Inside a batch
+     * the clear has to join the other edits, so there it does.
+     */
+    @Override
+    public void clear() {
+        if ( size == 0 ) {
+            return;
+        }
+        Removed removed = new Removed( length, area, timestamp, triangleId, size );
+        length = new double[ 64 ];
+        area = new double[ 64 ];
+        timestamp = new long[ 64 ];
+        triangleId = new int[ 64 ];
+        size = 0;
+        cachedRow = -1;
+        if ( batches > 0 ) {
+            nextRemove( 0, removed );
+        } else {
+            fireChange( new Cleared( this, removed ) );
+        }
+    }
+
+    /**
+     * The removal of all rows, as the only change.
+     */
+    private static final class Cleared extends ListChangeListener.Change<Measurement> {
+
+        private final List<Measurement> removed;
+        private int cursor = -1;
+
+        Cleared( MeasurementStore store, List<Measurement> removed ) {
+            super( store );
+            this.removed = removed;
+        }
+
+        @Override
+        public boolean next() {
+            cursor = Math.min( cursor + 1, 1 );
+            return cursor == 0;
+        }
+
+        @Override
+        public void reset() {
+            cursor = -1;
+        }
+
+        @Override
+        public int getFrom() {
+            checkState();
+            return 0;
+        }
+
+        @Override
+        public int getTo() {
+            checkState();
+            return 0;
+        }
+
+        @Override
+        public List<Measurement> getRemoved() {
+            checkState();
+            return removed;
+        }
+
+        @Override
+        protected int[] getPermutation() {
+            checkState();
+            return new int[ 0 ];
+        }
+
+        private void checkState() {
+            if ( cursor != 0 ) {
+                throw new IllegalStateException( "call next() first" );
+            }
+        }
+    }
+
+    /**
+     * Read only, newest first view on columns that are no longer in use.
+     */
+    private static final class Removed extends AbstractList<Measurement>
+            implements RandomAccess {
+
+        private final double[] length;
+        private final double[] area;
+        private final long[] timestamp;
+        private final int[] triangleId;
+        private final int size;
+
+        Removed( double[] length, double[] area, long[] timestamp,
+                int[] triangleId, int size ) {
+            this.length = length;
+            this.area = area;
+            this.timestamp = timestamp;
+            this.triangleId = triangleId;
+            this.size = size;
+        }
+
+        @Override
+        public Measurement get( int index ) {
+            if ( index < 0 || index >= size ) {
+                throw new IndexOutOfBoundsException( "index " + index + ", size " + size );
+            }
+            return measurement( length, area, timestamp, triangleId, size - 1 - index );
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
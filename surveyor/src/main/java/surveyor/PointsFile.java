@@ -0,0 +1,72 @@
+package surveyor;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file of polygon points: an 8 byte header, magic number and point
+ * count, followed by the coordinates as little endian doubles, x and y
+ * interleaved. Reading and writing go through a memory mapped buffer in bulk.
+ *
+ * @author Pieter van den Hombergh
+ */
+final class PointsFile {
+
+    static final int MAGIC = 0x53565031; // SVP1
+    static final int HEADER = 8;
+
+    private PointsFile() {
+    }
+
+    /**
+     * Write points to a file, replacing its content.
+     *
+     * @param file  to write
+     * @param xy    coordinates, x and y interleaved
+     * @param count number of points
+     * @throws IOException on write failure
+     */
+    static void write( Path file, double[] xy, int count ) throws IOException {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE ) ) {
+            MappedByteBuffer map = channel.map( FileChannel.MapMode.READ_WRITE,
+                    0, HEADER + 16L * count );
+            map.order( ByteOrder.LITTLE_ENDIAN );
+            map.putInt( MAGIC ).putInt( count );
+            map.asDoubleBuffer().put( xy, 0, 2 * count );
+            map.force();
+        }
+    }
+
+    /**
+     * Read all points of a file.
+     *
+     * @param file to read
+     * @return the coordinates, x and y interleaved
+     * @throws IOException if the file cannot be read or is no points file
+     */
+    static double[] read( Path file ) throws IOException {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+            MappedByteBuffer map = channel.map( FileChannel.MapMode.READ_ONLY,
+                    0, channel.size() );
+            map.order( ByteOrder.LITTLE_ENDIAN );
+            if ( map.remaining() < HEADER || map.getInt() != MAGIC ) {
+                throw new IOException( "not a points file" );
+            }
+            int count = map.getInt();
+            DoubleBuffer coordinates = map.asDoubleBuffer();
+            if ( count < 0 || coordinates.remaining() < 2L * count ) {
+                throw new IOException( "points file is truncated" );
+            }
+            double[] xy = new double[ 2 * count ];
+            coordinates.get( xy );
+            return xy;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package surveyor;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.IntegerBinding;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+
+/**
+ * Count, sum, minimum, maximum and mean of one value of the measurements in a
+ * list, maintained from the list changes instead of recomputed from the whole
+ * list.
+ *
+ * Added and removed measurements are applied as deltas, so accepting a
+ * measurement costs O(1) regardless of the number of measurements. The sum
+ * uses Kahan summation and is recomputed from scratch after as many removals
+ * as there are measurements (but at least {@link #RESUM_INTERVAL}), which
+ * keeps the amortized cost constant. Minimum and maximum only need a scan of
+ * the list when the current minimum or maximum itself is removed, and then
+ * only when they are read again.
+ *
+ * The list holds the aggregate weakly: an aggregate whose bindings are no
+ * longer used is collected and stops following the list. Call
+ * {@link #dispose()} to stop it right away.
+ *
+ * @author Pieter van den Hombergh
+ */
+class RunningAggregate {
+
+    static final int RESUM_INTERVAL = 1024;
+
+    private final ObservableList<Measurement> measurements;
+    private final ToDoubleFunction<Measurement> fun;
+
+    private final ListChangeListener<Measurement> listener = this::measurementsChanged;
+    private final WeakListChangeListener<Measurement> weakListener
+            = new WeakListChangeListener<>( listener );
+
+    private int count;
+    private double sum, compensation;
+    private int removals;
+    private double min = Double.NaN, max = Double.NaN;
+    private boolean minStale, maxStale;
+
+    private final IntegerBinding countBinding = new IntegerBinding() {
+        @Override
+        protected int computeValue() {
+            return count;
+        }
+    };
+
+    private final DoubleBinding sumBinding = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            return sum + compensation;
+        }
+    };
+
+    private final DoubleBinding minBinding = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            if ( minStale ) {
+                rescanExtremes();
+            }
+            return min;
+        }
+    };
+
+    private final DoubleBinding maxBinding = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            if ( maxStale ) {
+                rescanExtremes();
+            }
+            return max;
+        }
+    };
+
+    private final DoubleBinding meanBinding = new DoubleBinding() {
+        @Override
+        protected double computeValue() {
+            return count == 0 ? Double.NaN : ( sum + compensation ) / count;
+        }
+    };
+
+    /**
+     * Aggregate a value of the measurements in a list.
+     *
+     * @param measurements to follow
+     * @param fun          the value to aggregate
+     */
+    RunningAggregate( ObservableList<Measurement> measurements,
+            ToDoubleFunction<Measurement> fun ) {
+        this.measurements = measurements;
+        this.fun = fun;
+        measurements.addListener( weakListener );
+        added( measurements );
+    }
+
+    /**
+     * Stop following the list. The bindings keep their last values.
+     */
+    void dispose() {
+        measurements.removeListener( weakListener );
+    }
+
+    IntegerBinding countBinding() {
+        return countBinding;
+    }
+
+    DoubleBinding sumBinding() {
+        return sumBinding;
+    }
+
+    /**
+     * The smallest value, NaN if there are no measurements.
+     *
+     * @return the binding
+     */
+    DoubleBinding minBinding() {
+        return minBinding;
+    }
+
+    /**
+     * The largest value, NaN if there are no measurements.
+     *
+     * @return the binding
+     */
+    DoubleBinding maxBinding() {
+        return maxBinding;
+    }
+
+    /**
+     * The mean value, NaN if there are no measurements.
+     *
+     * @return the binding
+     */
+    DoubleBinding meanBinding() {
+        return meanBinding;
+    }
+
+    /**
+     * Apply a change of the list. A change that leaves the list empty, like a
+     * clear, resets the aggregate without reading the removed measurements.
+     */
+    private void measurementsChanged( ListChangeListener.Change<? extends Measurement> c ) {
+        if ( measurements.isEmpty() ) {
+            count = 0;
+            reset();
+        } else {
+            while ( c.next() ) {
+                if ( c.wasPermutated() || c.wasUpdated() ) {
+                    continue;
+                }
+                removed( c.getRemoved() );
+                added( c.getAddedSubList() );
+            }
+            if ( count == 0 ) {
+                reset();
+            } else if ( removals >= Math.max( RESUM_INTERVAL, count ) ) {
+                resum();
+            }
+        }
+        countBinding.invalidate();
+        sumBinding.invalidate();
+        minBinding.invalidate();
+        maxBinding.invalidate();
+        meanBinding.invalidate();
+    }
+
+    private void added( List<? extends Measurement> added ) {
+        for ( Measurement m : added ) {
+            double v = fun.applyAsDouble( m );
+            add( v );
+            count++;
+            if ( !minStale && !( v >= min ) ) {
+                min = v;
+            }
+            if ( !maxStale && !( v <= max ) ) {
+                max = v;
+            }
+        }
+    }
+
+    private void removed( List<? extends Measurement> removed ) {
+        for ( Measurement m : removed ) {
+            double v = fun.applyAsDouble( m );
+            add( -v );
+            count--;
+            removals++;
+            minStale |= v == min;
+            maxStale |= v == max;
+        }
+    }
+
+    private void add( double delta ) {
+        double y = delta + compensation;
+        double t = sum + y;
+        compensation = y - ( t - sum );
+        sum = t;
+    }
+
+    private void reset() {
+        sum = 0.0;
+        compensation = 0.0;
+        removals = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+        minStale = false;
+        maxStale = false;
+    }
+
+    private void resum() {
+        sum = 0.0;
+        compensation = 0.0;
+        for ( Measurement m : measurements ) {
+            add( fun.applyAsDouble( m ) );
+        }
+        removals = 0;
+    }
+
+    private void rescanExtremes() {
+        min = Double.NaN;
+        max = Double.NaN;
+        for ( Measurement m : measurements ) {
+            double v = fun.applyAsDouble( m );
+            if ( !( v >= min ) ) {
+                min = v;
+            }
+            if ( !( v <= max ) ) {
+                max = v;
+            }
+        }
+        minStale = false;
+        maxStale = false;
+    }
+}
@@ -1,9 +1,19 @@
 package surveyor;
 
+import fxtriangulate.geometry.Triangulation;
+import fxtriangulate.metrics.Counter;
+import fxtriangulate.metrics.Histogram;
+import fxtriangulate.metrics.Metrics;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javafx.beans.binding.DoubleBinding;
-import javafx.collections.FXCollections;
+import javafx.beans.binding.IntegerBinding;
 import javafx.collections.ObservableList;
 
 /**
@@ -15,44 +25,272 @@ public class SurveyorBusiness {
     String resultFile;
     String pointsFile;
     boolean unSaved;
-    ObservableList<Measurement> measurements = FXCollections
-            .observableArrayList();
+
+    /**
+     * The measurements, newest first.
+     */
+    final MeasurementStore measurements = new MeasurementStore();
+    private final List<Measurement> readOnlyMeasurements
+            = Collections.unmodifiableList( measurements );
+
+    /**
+     * Running aggregates of area and border length, following the
+     * measurements.
+     */
+    final RunningAggregate areas = new RunningAggregate( measurements,
+            Measurement::getArea );
+    final RunningAggregate lengths = new RunningAggregate( measurements,
+            Measurement::getLength );
+
+    /**
+     * Journal of the result file, null if no result file is open.
+     */
+    private MeasurementFile journal;
+
+    private static final Logger LOG = Logger.getLogger( SurveyorBusiness.class.getName() );
+
+    /**
+     * Latency of accepting, including the journal, and the number of
+     * measurements accepted, see {@link Metrics}.
+     */
+    static final Histogram ACCEPT = Metrics.histogram( "surveyor.accept" );
+    static final Counter ACCEPTED = Metrics.counter( "surveyor.measurements" );
 
     public SurveyorBusiness() {
     }
 
+    /**
+     * The measurements, newest first. Measurements only come in by
+     * accepting them, so the list cannot be modified.
+     *
+     * @return a read only view on the measurements
+     */
     public List<Measurement> getMeasurements() {
-        return measurements;
+        return readOnlyMeasurements;
     }
 
     void accept( Measurement measurement ) {
-        this.measurements.add( 0, measurement );
+        long start = ACCEPT.start();
+        this.measurements.append( measurement );
+        journal( 1 );
+        ACCEPTED.increment();
+        ACCEPT.stop( start );
+    }
+
+    /**
+     * Accept all triangles of a triangulation as measurements. The length of
+     * each measurement is the length of the border edges of its triangle, so
+     * the totals add up to area and border length of the polygon.
+     *
+     * @param triangulation to accept
+     */
+    void accept( Triangulation triangulation ) {
+        long start = ACCEPT.start();
+        long now = System.currentTimeMillis();
+        this.measurements.batch( () -> {
+            for ( int t = 0; t < triangulation.size(); t++ ) {
+                measurements.append( triangulation.borderLength( t ),
+                        triangulation.area( t ), now, t );
+            }
+        } );
+        journal( triangulation.size() );
+        ACCEPTED.add( triangulation.size() );
+        ACCEPT.stop( start );
     }
 
     DoubleBinding totalAreaBinding() {
-        return totalBinding( measurements, Measurement::getArea );
+        return areas.sumBinding();
     }
 
     DoubleBinding borderLengthBinding() {
-        return totalBinding( measurements, Measurement::getLength );
+        return lengths.sumBinding();
+    }
+
+    IntegerBinding countBinding() {
+        return areas.countBinding();
+    }
+
+    /**
+     * Count, sum, min, max and mean of the measured areas.
+     *
+     * @return the area aggregate
+     */
+    RunningAggregate areaStatistics() {
+        return areas;
+    }
+
+    /**
+     * Count, sum, min, max and mean of the measured border lengths.
+     *
+     * @return the length aggregate
+     */
+    RunningAggregate lengthStatistics() {
+        return lengths;
     }
 
+    /**
+     * Sum of a value over a list of measurements, kept up to date from the
+     * changes of the list. The list only holds the sum weakly, so it follows
+     * the list as long as the binding is used.
+     *
+     * @param m   the measurements
+     * @param fun the value to sum
+     * @return the total
+     */
     DoubleBinding totalBinding( ObservableList<Measurement> m, ToDoubleFunction<Measurement> fun ) {
-        return new DoubleBinding() {
-            {
-                bind( m );
-            }
+        return new RunningAggregate( m, fun ).sumBinding();
+    }
 
-            @Override
-            protected double computeValue() {
-                return m.stream()
-                        .mapToDouble( fun )
-                        .sum();
+    /**
+     * Remove all measurements from the session. An open result file keeps its
+     * measurements and is no longer journaled to, so clearing the view never
+     * loses results on disk; see {@link #clearResults()} to empty the file.
+     */
+    void clear() {
+        this.measurements.clear();
+        if ( journal != null ) {
+            try {
+                closeResults();
+            } catch ( IOException e ) {
+                LOG.log( Level.WARNING, "cannot close result file " + resultFile, e );
+                journal = null;
             }
-        };
+        }
+        unSaved = false;
     }
 
-    void clear() {
+    /**
+     * Remove all measurements and empty the open result file, which is
+     * journaled to from then on. Without a result file this is a plain
+     * {@link #clear()}.
+     */
+    void clearResults() {
+        if ( journal == null ) {
+            clear();
+            return;
+        }
         this.measurements.clear();
+        try {
+            journal.truncate();
+        } catch ( IOException e ) {
+            journalFailed( e );
+        }
+    }
+
+    /**
+     * Whether accepted measurements are journaled to a result file.
+     *
+     * @return true if a result file is open
+     */
+    boolean journaling() {
+        return journal != null;
+    }
+
+    /**
+     * Open a result file. Its measurements replace the current ones and every
+     * measurement accepted later is appended to it.
+     *
+     * The file is read and opened before anything changes, so a file that
+     * fails to load leaves the session and its journal as they were.
+     *
+     * @param file the result file, created if it does not exist
+     * @throws IOException if the file cannot be read or is no result file
+     */
+    void openResults( String file ) throws IOException {
+        Path path = Path.of( file );
+        MeasurementStore loaded = new MeasurementStore();
+        if ( Files.exists( path ) ) {
+            MeasurementFile.load( path, loaded );
+        }
+        MeasurementFile opened = MeasurementFile.open( path );
+        try {
+            closeResults();
+        } catch ( IOException e ) {
+            LOG.log( Level.WARNING, "cannot close result file " + resultFile, e );
+            journal = null;
+        }
+        this.measurements.clear();
+        this.measurements.appendAll( loaded );
+        journal = opened;
+        resultFile = file;
+        unSaved = false;
+    }
+
+    /**
+     * Write all measurements to a result file and journal to that file from
+     * now on.
+     *
+     * @param file the result file, replaced if it exists
+     * @throws IOException on write failure
+     */
+    void saveResults( String file ) throws IOException {
+        closeResults();
+        Path path = Path.of( file );
+        MeasurementFile.write( path, measurements );
+        journal = MeasurementFile.open( path );
+        resultFile = file;
+        unSaved = false;
+    }
+
+    /**
+     * Stop journaling to the result file.
+     *
+     * @throws IOException if closing fails
+     */
+    void closeResults() throws IOException {
+        if ( journal != null ) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Write polygon points to a points file.
+     *
+     * @param file the points file
+     * @param xy   coordinates, x and y interleaved
+     * @throws IOException on write failure
+     */
+    void savePoints( String file, double[] xy ) throws IOException {
+        PointsFile.write( Path.of( file ), xy, xy.length / 2 );
+        pointsFile = file;
+    }
+
+    /**
+     * Read polygon points from a points file.
+     *
+     * @param file the points file
+     * @return the coordinates, x and y interleaved
+     * @throws IOException if the file cannot be read or is no points file
+     */
+    double[] loadPoints( String file ) throws IOException {
+        double[] xy = PointsFile.read( Path.of( file ) );
+        pointsFile = file;
+        return xy;
+    }
+
+    /**
+     * Append the newest count measurements to the journal, if there is one.
+     */
+    private void journal( int count ) {
+        if ( journal == null ) {
+            unSaved = true;
+            return;
+        }
+        try {
+            journal.append( measurements, count );
+        } catch ( IOException e ) {
+            journalFailed( e );
+        }
+    }
+
+    private void journalFailed( IOException e ) {
+        LOG.log( Level.WARNING, "cannot write result file " + resultFile, e );
+        try {
+            closeResults();
+        } catch ( IOException ignored ) {
+            // the journal is given up anyway
+        }
+        unSaved = true;
     }
 }
@@ -0,0 +1,265 @@
+package surveyor;
+
+import fxtriangulate.PointFileReader;
+import fxtriangulate.geometry.MonotoneTriangulator;
+import fxtriangulate.geometry.ParallelShoelace;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Surveyor without a user interface, for measuring many parcel files in one
+ * go, for instance on a server without a display.
+ *
+ * Every parcel file holds the points of one polygon, in any format
+ * {@link PointFileReader} understands. The parcels are measured in parallel,
+ * one task per file, and the results are written as CSV in the order of the
+ * input, one line per parcel:
+ * <pre>
+ * file,vertices,area,perimeter,triangles
+ * </pre>
+ * With --results the measurements are also saved as a result file that the
+ * surveyor app can open.
+ *
+ * The JavaFX toolkit is not started.
+ *
+ * @author Pieter van den Hombergh
+ */
+public final class SurveyorCli {
+
+    private static final Logger LOG = Logger.getLogger( SurveyorCli.class.getName() );
+
+    static final String USAGE = "usage: SurveyorCli [-o out.csv] [--results results.bin]"
+            + " [--threads n] [--no-triangulate] file-or-directory...";
+
+    static final String HEADER = "file,vertices,area,perimeter,triangles";
+
+    /**
+     * Measurement of one parcel.
+     */
+    static final class Parcel {
+
+        final Path file;
+        final int vertices;
+        final double area;
+        final double perimeter;
+        final int triangles;
+
+        Parcel( Path file, int vertices, double area, double perimeter,
+                int triangles ) {
+            this.file = file;
+            this.vertices = vertices;
+            this.area = area;
+            this.perimeter = perimeter;
+            this.triangles = triangles;
+        }
+
+        String toCsv() {
+            return csvField( file.toString() ) + ',' + vertices + ',' + area
+                    + ',' + perimeter + ',' + triangles;
+        }
+    }
+
+    private Path output;
+    private Path results;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean triangulate = true;
+    private final List<Path> inputs = new ArrayList<>();
+
+    private SurveyorCli() {
+    }
+
+    public static void main( String[] args ) {
+        System.exit( run( args, System.out, System.err ) );
+    }
+
+    /**
+     * Run the command line.
+     *
+     * @param args command line arguments
+     * @param out  receives the CSV unless -o is given
+     * @param err  receives usage and errors
+     * @return exit status: 0 if all parcels were measured, 1 if some failed, 2
+     *         on a usage error
+     */
+    static int run( String[] args, PrintStream out, PrintStream err ) {
+        SurveyorCli cli = new SurveyorCli();
+        try {
+            cli.parse( args );
+        } catch ( IllegalArgumentException e ) {
+            err.println( e.getMessage() );
+            err.println( USAGE );
+            return 2;
+        }
+        try {
+            return cli.measureAll( out, err );
+        } catch ( IOException e ) {
+            err.println( e.getMessage() );
+            return 1;
+        }
+    }
+
+    private void parse( String[] args ) {
+        for ( int i = 0; i < args.length; i++ ) {
+            String a = args[ i ];
+            switch ( a ) {
+                case "-o":
+                    output = Path.of( value( args, ++i, a ) );
+                    break;
+                case "--results":
+                    results = Path.of( value( args, ++i, a ) );
+                    break;
+                case "--threads":
+                    try {
+                        threads = Integer.parseInt( value( args, ++i, a ) );
+                    } catch ( NumberFormatException e ) {
+                        throw new IllegalArgumentException( "--threads needs a number" );
+                    }
+                    if ( threads < 1 ) {
+                        throw new IllegalArgumentException( "--threads needs at least 1" );
+                    }
+                    break;
+                case "--no-triangulate":
+                    triangulate = false;
+                    break;
+                default:
+                    if ( a.startsWith( "-" ) ) {
+                        throw new IllegalArgumentException( "unknown option " + a );
+                    }
+                    inputs.add( Path.of( a ) );
+            }
+        }
+        if ( inputs.isEmpty() ) {
+            throw new IllegalArgumentException( "no parcel files" );
+        }
+    }
+
+    private static String value( String[] args, int i, String option ) {
+        if ( i >= args.length ) {
+            throw new IllegalArgumentException( option + " needs a value" );
+        }
+        return args[ i ];
+    }
+
+    /**
+     * The parcel files: the files given, and the regular files in the
+     * directories given, sorted by name.
+     */
+    private List<Path> parcelFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for ( Path p : inputs ) {
+            if ( Files.isDirectory( p ) ) {
+                try ( Stream<Path> walk = Files.walk( p ) ) {
+                    files.addAll( walk.filter( Files::isRegularFile ).sorted()
+                            .collect( Collectors.toList() ) );
+                }
+            } else {
+                files.add( p );
+            }
+        }
+        return files;
+    }
+
+    private int measureAll( PrintStream out, PrintStream err ) throws IOException {
+        List<Path> files = parcelFiles();
+        SurveyorBusiness business = results == null ? null : new SurveyorBusiness();
+        ExecutorService pool = Executors.newFixedThreadPool( threads, r -> {
+            Thread t = new Thread( r, "surveyor" );
+            t.setDaemon( true );
+            return t;
+        } );
+        int failed = 0;
+        Writer csv = output == null
+                ? new BufferedWriter( new OutputStreamWriter( out, StandardCharsets.UTF_8 ) )
+                : Files.newBufferedWriter( output );
+        try {
+            List<Future<Parcel>> measured = new ArrayList<>( files.size() );
+            for ( Path file : files ) {
+                measured.add( pool.submit( () -> measure( file, triangulate ) ) );
+            }
+            csv.write( HEADER );
+            csv.write( '\n' );
+            long now = System.currentTimeMillis();
+            for ( int i = 0; i < files.size(); i++ ) {
+                Parcel parcel;
+                try {
+                    parcel = measured.get( i ).get();
+                } catch ( ExecutionException e ) {
+                    failed++;
+                    err.println( files.get( i ) + ": " + e.getCause().getMessage() );
+                    LOG.log( Level.FINE, "cannot measure " + files.get( i ), e.getCause() );
+                    continue;
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException( "interrupted", e );
+                }
+                csv.write( parcel.toCsv() );
+                csv.write( '\n' );
+                if ( business != null ) {
+                    business.accept( Measurement.builder()
+                            .area( parcel.area )
+                            .length( parcel.perimeter )
+                            .timestamp( now )
+                            .build() );
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            if ( output == null ) {
+                csv.flush(); // leave standard out open
+            } else {
+                csv.close();
+            }
+        }
+        if ( business != null ) {
+            business.saveResults( results.toString() );
+            business.closeResults();
+        }
+        return failed == 0 ? 0 : 1;
+    }
+
+    /**
+     * Measure one parcel.
+     *
+     * @param file        with the polygon points
+     * @param triangulate if true, the polygon is also triangulated
+     * @return the measurement
+     * @throws IOException if the file cannot be read
+     */
+    static Parcel measure( Path file, boolean triangulate ) throws IOException {
+        double[] xy = PointFileReader.readAll( file );
+        int n = xy.length / 2;
+        if ( n < 3 ) {
+            throw new IOException( "a parcel needs at least 3 points, found " + n );
+        }
+        double[] ap = ParallelShoelace.shoelace( xy, 0, n, new double[ 2 ] );
+        int triangles = triangulate
+                ? MonotoneTriangulator.triangulate( xy, 0, n ).size() : 0;
+        return new Parcel( file, n, ap[ 0 ], ap[ 1 ], triangles );
+    }
+
+    /**
+     * Quote a CSV field if needed.
+     */
+    static String csvField( String s ) {
+        if ( s.indexOf( ',' ) < 0 && s.indexOf( '"' ) < 0 && s.indexOf( '\n' ) < 0 ) {
+            return s;
+        }
+        return '"' + s.replace( "\"", "\"\"" ) + '"';
+    }
+}
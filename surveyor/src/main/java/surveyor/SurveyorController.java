@@ -1,15 +1,21 @@
 package surveyor;
 
+import fxtriangulate.FixedDecimalBinding;
 import fxtriangulate.TriangulatorController;
-import java.lang.reflect.Field;
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
@@ -18,8 +24,8 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
+import javafx.stage.FileChooser;
 import javafx.util.converter.NumberStringConverter;
 
 /**
@@ -87,6 +93,14 @@ public class SurveyorController implements Initializable {
     MenuItem clear;
     @FXML
     MenuItem unpin;
+    @FXML
+    MenuItem triangulate;
+    @FXML
+    MenuItem openResults;
+    @FXML
+    MenuItem saveResults;
+    @FXML
+    MenuItem emptyResults;
 
     DoubleProperty redXProp = new SimpleDoubleProperty();
     DoubleProperty redYProp = new SimpleDoubleProperty();
@@ -134,29 +148,118 @@ public class SurveyorController implements Initializable {
         blueX.textProperty().bindBidirectional(triangulator.blueXProperty(), converter);
         blueY.textProperty().bindBidirectional(triangulator.blueYProperty(), converter);
 
-        area.textProperty().bind(triangulator.areaBinding().asString("%6.2f"));
+        area.textProperty().bind(FixedDecimalBinding.of(triangulator.areaBinding(), ""));
 
-        redLength.textProperty().bind(triangulator
-                .lengthBinding("redLine").asString("%6.2f"));
+        redLength.textProperty().bind(FixedDecimalBinding.of(triangulator
+                .lengthBinding("redLine"), ""));
 
-        greenLength.textProperty().bind(triangulator
-                .lengthBinding("greenLine").asString("%6.2f"));
+        greenLength.textProperty().bind(FixedDecimalBinding.of(triangulator
+                .lengthBinding("greenLine"), ""));
 
-        blueLength.textProperty().bind(triangulator.lengthBinding("blueLine")
-                .asString("%6.2f"));
+        blueLength.textProperty().bind(FixedDecimalBinding.of(triangulator
+                .lengthBinding("blueLine"), ""));
 
-        sum.textProperty().bind(triangulator.lengthActiveLines().asString(
-                "%6.2f"));
+        sum.textProperty().bind(FixedDecimalBinding.of(triangulator.lengthActiveLines(), ""));
 
-        totalAera.textProperty().bind(business.totalAreaBinding().asString("%6.2f"));
+        totalAera.textProperty().bind(FixedDecimalBinding.of(business.totalAreaBinding(), ""));
 
-        borderLength.textProperty().bind(business.borderLengthBinding().asString("%6.2f"));
+        borderLength.textProperty().bind(FixedDecimalBinding.of(business
+                .borderLengthBinding(), ""));
 
         defineTable();
 
         tv.setItems(business.measurements);
 
         triangulator.setSnapStrategy(TriangulatorController.SnapStrategy.SNAP_TO_NEAREST);
+
+        openResults(System.getProperty("surveyor.results"));
+    }
+
+    /**
+     * Continue the session in a result file, if one is given.
+     *
+     * @param file result file, may be null
+     */
+    void openResults(String file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            business.openResults(file);
+        } catch (IOException ex) {
+            Logger.getLogger(SurveyorController.class.getName())
+                    .log(Level.WARNING, "cannot open result file " + file, ex);
+        }
+    }
+
+    /**
+     * Choose a result file to continue the session in.
+     *
+     * @param event ignored
+     */
+    @FXML
+    void openResults(ActionEvent event) {
+        File file = resultChooser("Open Results")
+                .showOpenDialog(root.getScene().getWindow());
+        if (file != null) {
+            openResults(file.toString());
+        }
+    }
+
+    /**
+     * Write the measurements to a chosen result file, which is journaled to
+     * from then on.
+     *
+     * @param event ignored
+     */
+    @FXML
+    void saveResults(ActionEvent event) {
+        File file = resultChooser("Save Results")
+                .showSaveDialog(root.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            business.saveResults(file.toString());
+        } catch (IOException ex) {
+            Logger.getLogger(SurveyorController.class.getName())
+                    .log(Level.WARNING, "cannot save result file " + file, ex);
+        }
+    }
+
+    /**
+     * Remove the measurements from the open result file too, after the user
+     * confirms.
+     *
+     * @param event ignored
+     */
+    @FXML
+    void emptyResults(ActionEvent event) {
+        if (!business.journaling()) {
+            business.clear();
+            return;
+        }
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "Remove all measurements from " + business.resultFile + "?",
+                ButtonType.OK, ButtonType.CANCEL);
+        confirm.setHeaderText("Empty result file");
+        confirm.showAndWait()
+                .filter(ButtonType.OK::equals)
+                .ifPresent(b -> business.clearResults());
+    }
+
+    private FileChooser resultChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Result files", "*.bin"),
+                new FileChooser.ExtensionFilter("All files", "*"));
+        if (business.resultFile != null) {
+            File current = new File(business.resultFile);
+            chooser.setInitialDirectory(current.getAbsoluteFile().getParentFile());
+            chooser.setInitialFileName(current.getName());
+        }
+        return chooser;
     }
 
     @FXML
@@ -177,18 +280,30 @@ public class SurveyorController implements Initializable {
         triangulator.addPoints(points);
     }
 
-    void defineTable() throws SecurityException {
-        
-        Field[] declaredFields = Measurement.class.getDeclaredFields();
+    /**
+     * Set the polygon points from a primitive buffer, without boxing.
+     *
+     * @param xy coordinates, x and y interleaved
+     * @param offset of the first x value in xy
+     * @param len number of values to take, twice the number of points
+     */
+    public void addPoints(double[] xy, int offset, int len) {
+        triangulator.addPoints(xy, offset, len);
+    }
 
-        int colCount = declaredFields.length;
-        for (Field declaredField : declaredFields) {
-            String clsName = declaredField.getName();
-            TableColumn<Measurement, Object> tc = new TableColumn<>(clsName);
-            tc.setCellValueFactory(new PropertyValueFactory<>(clsName));
+    /**
+     * Define the table columns. The columns are resolved once, the cells read
+     * the values without reflection.
+     */
+    void defineTable() {
+        int colCount = MeasurementColumns.DEFINITIONS.size();
+        for (MeasurementColumns.Definition d : MeasurementColumns.DEFINITIONS) {
+            TableColumn<Measurement, Number> tc = MeasurementColumns.column(d, business.measurements);
             tc.prefWidthProperty().bind(tv.widthProperty().divide(colCount));
             tv.getColumns().add(tc);
         }
+        // rows of equal height let the virtual flow skip measuring cells
+        tv.setFixedCellSize(24);
     }
 
     @FXML
@@ -259,4 +374,9 @@ public class SurveyorController implements Initializable {
     void unpin(ActionEvent event) {
     }
 
+    @FXML
+    void triangulate(ActionEvent event) {
+        business.accept(triangulator.triangulate());
+    }
+
 }
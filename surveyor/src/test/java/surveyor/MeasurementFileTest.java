@@ -0,0 +1,128 @@
+package surveyor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that journaled and written measurements and points load back
+ * unchanged.
+ *
+ * @author Pieter van den Hombergh
+ */
+public class MeasurementFileTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A session journaled to a result file is back after reopening, also
+     * when the last record was only partly written.
+     */
+    @Test
+    public void tJournal() throws Exception {
+        String file = dir.resolve( "results.bin" ).toString();
+        SurveyorBusiness session = new SurveyorBusiness();
+        session.openResults( file );
+        for ( int i = 1; i <= 100; i++ ) {
+            session.accept( Measurement.builder().area( i ).length( 1.0 ).build() );
+        }
+        session.closeResults();
+        Files.write( Path.of( file ), new byte[]{ 1, 2, 3 }, StandardOpenOption.APPEND );
+
+        SurveyorBusiness next = new SurveyorBusiness();
+        next.openResults( file );
+
+        assertThat( next.measurements ).hasSize( 100 );
+        assertThat( next.measurements.area( 0 ) ).isEqualTo( 100.0 );
+        assertThat( next.totalAreaBinding().get() ).isCloseTo( 5050.0, within( 1e-9 ) );
+        assertThat( next.unSaved ).isFalse();
+    }
+
+    /**
+     * Clear leaves the result file alone, emptying it is a separate action.
+     */
+    @Test
+    public void tClear() throws Exception {
+        String file = dir.resolve( "results.bin" ).toString();
+        SurveyorBusiness session = new SurveyorBusiness();
+        session.openResults( file );
+        for ( int i = 1; i <= 3; i++ ) {
+            session.accept( Measurement.builder().area( i ).length( 1.0 ).build() );
+        }
+        session.clear();
+        session.accept( Measurement.builder().area( 4 ).length( 1.0 ).build() );
+
+        assertThat( session.measurements ).hasSize( 1 );
+        assertThat( session.journaling() ).isFalse();
+        assertThat( Files.size( Path.of( file ) ) )
+                .isEqualTo( 8 + 3L * MeasurementFile.RECORD );
+
+        session.openResults( file );
+        session.clearResults();
+        session.accept( Measurement.builder().area( 5 ).length( 1.0 ).build() );
+        session.closeResults();
+
+        SurveyorBusiness next = new SurveyorBusiness();
+        next.openResults( file );
+        assertThat( next.measurements ).hasSize( 1 );
+        assertThat( next.measurements.area( 0 ) ).isEqualTo( 5.0 );
+    }
+
+    /**
+     * A file that is no result file leaves the session as it was; an empty
+     * file is an empty result file.
+     */
+    @Test
+    public void tOpenFails() throws Exception {
+        String file = dir.resolve( "results.bin" ).toString();
+        SurveyorBusiness session = new SurveyorBusiness();
+        session.openResults( file );
+        session.accept( Measurement.builder().area( 1 ).length( 1.0 ).build() );
+        Path other = Files.write( dir.resolve( "other.bin" ), new byte[ 100 ] );
+
+        assertThatThrownBy( () -> session.openResults( other.toString() ) )
+                .isInstanceOf( IOException.class );
+        assertThat( session.measurements ).hasSize( 1 );
+        assertThat( session.journaling() ).isTrue();
+        assertThat( session.resultFile ).isEqualTo( file );
+
+        Path empty = Files.createFile( dir.resolve( "empty.bin" ) );
+        session.openResults( empty.toString() );
+        assertThat( session.measurements ).isEmpty();
+        assertThat( session.resultFile ).isEqualTo( empty.toString() );
+    }
+
+    @Test
+    public void tWriteAndLoad() throws Exception {
+        MeasurementStore store = new MeasurementStore();
+        for ( int i = 0; i < 1000; i++ ) {
+            store.append( i, 2 * i, 1000L + i, i % 3 );
+        }
+        Path file = dir.resolve( "all.bin" );
+        MeasurementFile.write( file, store );
+
+        MeasurementStore loaded = new MeasurementStore();
+        MeasurementFile.load( file, loaded );
+
+        assertThat( Files.size( file ) ).isEqualTo( 8 + 1000L * MeasurementFile.RECORD );
+        assertThat( loaded ).hasSize( 1000 );
+        assertThat( loaded.length( 0 ) ).isEqualTo( 999.0 );
+        assertThat( loaded.timestamp( 999 ) ).isEqualTo( 1000L );
+        assertThat( loaded.triangleId( 1 ) ).isEqualTo( 998 % 3 );
+    }
+
+    @Test
+    public void tPoints() throws Exception {
+        double[] xy = { 60.0, 10.0, 170.0, 10.0, 550.0, 123.0 };
+        String file = dir.resolve( "points.bin" ).toString();
+        SurveyorBusiness business = new SurveyorBusiness();
+        business.savePoints( file, xy );
+
+        assertThat( business.loadPoints( file ) ).containsExactly( xy );
+    }
+}
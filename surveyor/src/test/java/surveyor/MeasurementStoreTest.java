@@ -0,0 +1,103 @@
+package surveyor;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check the newest first view on the columns and the changes it reports.
+ *
+ * @author Pieter van den Hombergh
+ */
+public class MeasurementStoreTest {
+
+    @Test
+    public void tNewestFirst() {
+        MeasurementStore store = new MeasurementStore();
+        for ( int i = 0; i < 100; i++ ) {
+            store.append( i, 2 * i, 1000L + i, i );
+        }
+
+        assertThat( store ).hasSize( 100 );
+        assertThat( store.get( 0 ).getLength() ).isEqualTo( 99.0 );
+        assertThat( store.get( 0 ).getTimestamp() ).isEqualTo( 1099L );
+        assertThat( store.get( 99 ).getArea() ).isEqualTo( 0.0 );
+        assertThat( store.triangleId( 1 ) ).isEqualTo( 98 );
+
+        store.remove( 1 );
+        assertThat( store.get( 0 ).getLength() ).isEqualTo( 99.0 );
+        assertThat( store.get( 1 ).getLength() ).isEqualTo( 97.0 );
+        assertThat( store.get( 98 ).getLength() ).isEqualTo( 0.0 );
+    }
+
+    /**
+     * An append is reported as an add at index 0, a clear as the removal of
+     * all rows.
+     */
+    @Test
+    public void tChanges() {
+        MeasurementStore store = new MeasurementStore();
+        store.append( 1.0, 10.0, 0L, -1 );
+        List<String> changes = new ArrayList<>();
+        store.addListener( ( ListChangeListener.Change<? extends Measurement> c ) -> {
+            while ( c.next() ) {
+                changes.add( c.getFrom() + " +" + c.getAddedSize()
+                        + " -" + c.getRemovedSize() );
+            }
+        } );
+
+        store.append( 2.0, 20.0, 0L, -1 );
+        store.batch( () -> {
+            store.append( 3.0, 30.0, 0L, 0 );
+            store.append( 4.0, 40.0, 0L, 1 );
+        } );
+        Measurement newest = store.get( 0 );
+        List<Measurement> removed = new ArrayList<>();
+        store.addListener( ( ListChangeListener.Change<? extends Measurement> c ) -> {
+            while ( c.next() ) {
+                removed.addAll( c.getRemoved() );
+            }
+        } );
+        store.clear();
+        store.append( 5.0, 50.0, 0L, -1 );
+
+        assertThat( changes ).containsExactly( "0 +1 -0", "0 +2 -0", "0 +0 -4",
+                "0 +1 -0" );
+        assertThat( store ).hasSize( 1 );
+        assertThat( removed ).hasSize( 4 ).startsWith( newest );
+        assertThat( removed.get( 3 ).getLength() ).isEqualTo( 1.0 );
+    }
+
+    /**
+     * Reading a row twice gives equal measurements.
+     */
+    @Test
+    public void tRowsAreValues() {
+        MeasurementStore store = new MeasurementStore();
+        store.append( 1.0, 10.0, 5L, 3 );
+        store.append( 2.0, 20.0, 6L, -1 );
+
+        assertThat( store.get( 1 ) ).isEqualTo( store.get( 1 ) )
+                .hasSameHashCodeAs( store.get( 1 ) )
+                .isNotEqualTo( store.get( 0 ) );
+        assertThat( store.indexOf( store.get( 1 ) ) ).isEqualTo( 1 );
+        assertThat( store.contains( Measurement.builder().length( 2.0 )
+                .area( 20.0 ).timestamp( 6L ).build() ) ).isTrue();
+    }
+
+    /**
+     * The measurements of the business only come in by accepting them.
+     */
+    @Test
+    public void tReadOnlyView() {
+        SurveyorBusiness business = new SurveyorBusiness();
+        business.accept( Measurement.builder().area( 1 ).length( 1.0 ).build() );
+        Measurement m = Measurement.builder().area( 2 ).length( 1.0 ).build();
+
+        assertThatThrownBy( () -> business.getMeasurements().add( m ) )
+                .isInstanceOf( UnsupportedOperationException.class );
+        assertThat( business.getMeasurements() ).hasSize( 1 );
+    }
+}
@@ -0,0 +1,93 @@
+package surveyor;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check that the running aggregates follow adds, removes and replaces.
+ *
+ * @author Pieter van den Hombergh
+ */
+public class RunningAggregateTest {
+
+    static Measurement area( double area ) {
+        return Measurement.builder().area( area ).length( 1.0 ).build();
+    }
+
+    @Test
+    public void tFollowsChanges() {
+        ObservableList<Measurement> list = FXCollections.observableArrayList();
+        list.add( area( 5.0 ) );
+        RunningAggregate a = new RunningAggregate( list, Measurement::getArea );
+
+        list.add( 0, area( 2.0 ) );
+        list.addAll( area( 9.0 ), area( 4.0 ) );
+        list.set( 2, area( 1.0 ) ); // replaces 9.0, the maximum
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat( a.countBinding().get() ).isEqualTo( 4 );
+        softly.assertThat( a.sumBinding().get() ).isCloseTo( 12.0, within( 1e-12 ) );
+        softly.assertThat( a.minBinding().get() ).isEqualTo( 1.0 );
+        softly.assertThat( a.maxBinding().get() ).isEqualTo( 5.0 );
+        softly.assertThat( a.meanBinding().get() ).isCloseTo( 3.0, within( 1e-12 ) );
+        softly.assertAll();
+    }
+
+    /**
+     * An empty list has a total of exactly zero and no minimum, maximum or
+     * mean. Clearing does not read the removed measurements.
+     */
+    @Test
+    public void tClear() {
+        ObservableList<Measurement> list = FXCollections.observableArrayList();
+        int[] reads = { 0 };
+        RunningAggregate a = new RunningAggregate( list, m -> {
+            reads[ 0 ]++;
+            return m.getArea();
+        } );
+        list.addAll( area( 0.1 ), area( 0.2 ), area( 1e12 ) );
+        list.clear();
+
+        assertThat( reads[ 0 ] ).isEqualTo( 3 );
+
+        assertThat( a.countBinding().get() ).isZero();
+        assertThat( a.sumBinding().get() ).isEqualTo( 0.0 );
+        assertThat( a.minBinding().get() ).isNaN();
+        assertThat( a.meanBinding().get() ).isNaN();
+    }
+
+    @Test
+    public void tDispose() {
+        ObservableList<Measurement> list = FXCollections.observableArrayList();
+        RunningAggregate a = new RunningAggregate( list, Measurement::getArea );
+        list.add( area( 2.0 ) );
+        a.sumBinding().get();
+
+        a.dispose();
+        list.add( area( 3.0 ) );
+
+        assertThat( a.sumBinding().isValid() ).isTrue();
+        assertThat( a.sumBinding().get() ).isEqualTo( 2.0 );
+    }
+
+    /**
+     * The business totals stay right while measurements come and go.
+     */
+    @Test
+    public void tBusinessTotals() {
+        SurveyorBusiness business = new SurveyorBusiness();
+        for ( int i = 1; i <= 1000; i++ ) {
+            business.accept( Measurement.builder().area( i ).length( 2 * i ).build() );
+        }
+        business.measurements.remove( 0, 500 );
+
+        assertThat( business.totalAreaBinding().get() )
+                .isCloseTo( 500 * 501 / 2.0, within( 1e-9 ) );
+        assertThat( business.borderLengthBinding().get() )
+                .isCloseTo( 500 * 501.0, within( 1e-9 ) );
+        assertThat( business.countBinding().get() ).isEqualTo( 500 );
+    }
+}
@@ -0,0 +1,59 @@
+package surveyor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check the batch surveyor on a directory of parcels.
+ *
+ * @author Pieter van den Hombergh
+ */
+public class SurveyorCliTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void tMeasureDirectory() throws Exception {
+        Path parcels = Files.createDirectory( dir.resolve( "parcels" ) );
+        Files.writeString( parcels.resolve( "a.csv" ), "x,y\n0,0\n10,0\n10,10\n0,10\n" );
+        Files.writeString( parcels.resolve( "b.wkt" ), "POLYGON ((0 0, 4 0, 0 3, 0 0))" );
+        Files.writeString( parcels.resolve( "c.csv" ), "1,2\n" );
+        Path csv = dir.resolve( "out.csv" );
+        Path results = dir.resolve( "results.bin" );
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int status = SurveyorCli.run( new String[]{ "-o", csv.toString(),
+            "--results", results.toString(), "--threads", "2", parcels.toString() },
+                System.out, new PrintStream( err, true ) );
+
+        List<String> lines = Files.readAllLines( csv );
+        assertThat( status ).isEqualTo( 1 );
+        assertThat( err.toString() ).contains( "c.csv" );
+        assertThat( lines ).containsExactly( SurveyorCli.HEADER,
+                parcels.resolve( "a.csv" ) + ",4,100.0,40.0,2",
+                parcels.resolve( "b.wkt" ) + ",3,6.0,12.0,1" );
+
+        SurveyorBusiness business = new SurveyorBusiness();
+        business.openResults( results.toString() );
+        assertThat( business.totalAreaBinding().get() ).isEqualTo( 106.0 );
+        business.closeResults();
+    }
+
+    @Test
+    public void tUsage() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int status = SurveyorCli.run( new String[]{ "--threads", "none", "x" },
+                System.out, new PrintStream( err, true ) );
+
+        assertThat( status ).isEqualTo( 2 );
+        assertThat( err.toString() ).contains( SurveyorCli.USAGE );
+    }
+}